@@ -0,0 +1,108 @@
+package com.example.bench;
+
+import com.example.config.JPAUtil;
+import com.example.model.Department;
+import com.example.model.Employee;
+import com.example.repository.GenericRepository;
+import com.example.repository.GenericRepositoryImpl;
+import com.example.util.BulkDataSeeder;
+import org.openjdk.jmh.annotations.*;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * H2 database seeded with a configurable number of employees and departments,
+ * shared by all threads of a benchmark trial.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+    private static final String[] FIRST_NAMES = {"Ali", "Ayşe", "Mehmet", "Elif", "Can", "Burcu", "Kemal", "Hülya"};
+    private static final String[] LAST_NAMES = {"Yılmaz", "Kara", "Demir", "Aydın", "Öztürk", "Tekin", "Kurt", "Arslan"};
+
+    private static final int SEED_CHUNK = 10_000;
+
+    /** "mem" for an in-memory database, "file" for a database in a temporary directory. */
+    @Param({"mem", "file"})
+    public String storage;
+
+    @Param({"10000"})
+    public int employees;
+
+    @Param({"20"})
+    public int departments;
+
+    EntityManagerFactory emf;
+    Long[] employeeIds;
+    String[] emails;
+    String[] departmentNames;
+    Long[] departmentIds;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Map<String, Object> properties = new HashMap<>();
+        if ("file".equals(storage)) {
+            directory = Files.createTempDirectory("jpa-bench");
+            properties.put("jakarta.persistence.jdbc.url", "jdbc:h2:file:" + directory.resolve("bench"));
+        } else {
+            properties.put("jakarta.persistence.jdbc.url", "jdbc:h2:mem:bench" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        }
+        properties.put("hibernate.hbm2ddl.auto", "create");
+        emf = JPAUtil.createEntityManagerFactory(properties);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        emf.close();
+        if (directory != null) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    /** Opens a new repository; the caller closes its EntityManager. */
+    GenericRepository newRepository(EntityManager em) {
+        return new GenericRepositoryImpl(em);
+    }
+
+    /** Creates an unsaved employee with deterministic data for the given sequence number. */
+    static Employee newEmployee(long n) {
+        String first = FIRST_NAMES[(int) (n % FIRST_NAMES.length)];
+        String last = LAST_NAMES[(int) ((n / FIRST_NAMES.length) % LAST_NAMES.length)];
+        return new Employee(first, last, (first + "." + last + "." + n + "@example.com").toLowerCase(),
+                4000.0 + (n * 37) % 4000);
+    }
+
+    private void seed() {
+        new BulkDataSeeder(emf)
+                .employees(employees)
+                .departments(departments)
+                .chunkSize(SEED_CHUNK)
+                .run();
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            List<Department> saved = em.createQuery("from Department d order by d.id", Department.class).getResultList();
+            departmentIds = saved.stream().map(Department::getId).toArray(Long[]::new);
+            departmentNames = saved.stream().map(Department::getName).toArray(String[]::new);
+
+            List<Object[]> rows = em.createQuery("select e.id, e.email from Employee e order by e.id", Object[].class)
+                    .getResultList();
+            employeeIds = rows.stream().map(row -> (Long) row[0]).toArray(Long[]::new);
+            emails = rows.stream().map(row -> (String) row[1]).toArray(String[]::new);
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.bench;
+
+import com.example.model.Department;
+import com.example.model.Employee;
+import com.example.repository.GenericRepository;
+import org.openjdk.jmh.annotations.*;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to insert a batch of employees through saveAll in one transaction.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BulkInsertBenchmark {
+
+    @Param({"1000"})
+    public int batch;
+
+    private EntityManager em;
+    private GenericRepository repo;
+    private long sequence = 1_000_000_000L;
+
+    @Setup(Level.Iteration)
+    public void setUp(BenchmarkDatabase db) {
+        em = db.emf.createEntityManager();
+        repo = db.newRepository(em);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        em.close();
+    }
+
+    @Benchmark
+    public List<Employee> saveAll(BenchmarkDatabase db) {
+        em.getTransaction().begin();
+        List<Employee> employees = new ArrayList<>(batch);
+        for (int i = 0; i < batch; i++) {
+            Employee employee = BenchmarkDatabase.newEmployee(sequence++);
+            employee.setDepartment(em.getReference(Department.class, db.departmentIds[i % db.departmentIds.length]));
+            employees.add(employee);
+        }
+        List<Employee> saved = repo.saveAll(employees);
+        em.getTransaction().commit();
+        em.clear();
+        return saved;
+    }
+}
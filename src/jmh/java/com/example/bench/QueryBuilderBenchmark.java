@@ -0,0 +1,90 @@
+package com.example.bench;
+
+import com.example.model.Department_;
+import com.example.model.Employee;
+import com.example.model.Employee_;
+import com.example.repository.CompiledQuery;
+import com.example.repository.CriteriaFindBuilder;
+import com.example.repository.GenericRepository;
+import org.openjdk.jmh.annotations.*;
+
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.repository.Restriction.*;
+
+/**
+ * The same query through the string based FindBuilder, a new CriteriaFindBuilder per
+ * call, and a CriteriaFindBuilder compiled once and executed with new values.
+ * Run with -prof gc to compare the allocation per operation.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class QueryBuilderBenchmark {
+    private static final int LIMIT = 20;
+
+    private EntityManager em;
+    private GenericRepository repo;
+    private SplittableRandom random;
+    private CompiledQuery<Employee> compiled;
+
+    @Setup(Level.Iteration)
+    public void setUp(BenchmarkDatabase db) {
+        em = db.emf.createEntityManager();
+        repo = db.newRepository(em);
+        random = new SplittableRandom(42);
+        compiled = new CriteriaFindBuilder<>(em, Employee.class)
+                .where(Employee_.salary, ge(0.0))
+                .where(Employee_.department, Department_.name, eq(db.departmentNames[0]))
+                .orderBy(Employee_.salary, true)
+                .limit(LIMIT)
+                .compile();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        em.close();
+    }
+
+    @Benchmark
+    public List<Employee> findBuilder(BenchmarkDatabase db) {
+        em.clear();
+        return repo.findBy(Employee.class)
+                .ge("salary", minSalary())
+                .where("department.name", departmentName(db))
+                .orderBy("salary", true)
+                .page(1, LIMIT)
+                .getResult();
+    }
+
+    @Benchmark
+    public List<Employee> criteriaBuilder(BenchmarkDatabase db) {
+        em.clear();
+        return new CriteriaFindBuilder<>(em, Employee.class)
+                .where(Employee_.salary, ge(minSalary()))
+                .where(Employee_.department, Department_.name, eq(departmentName(db)))
+                .orderBy(Employee_.salary, true)
+                .limit(LIMIT)
+                .getResult();
+    }
+
+    @Benchmark
+    public List<Employee> compiledCriteria(BenchmarkDatabase db) {
+        em.clear();
+        return compiled.getResult(em, minSalary(), departmentName(db));
+    }
+
+    private Double minSalary() {
+        return 4000.0 + random.nextInt(4000);
+    }
+
+    private String departmentName(BenchmarkDatabase db) {
+        return db.departmentNames[random.nextInt(db.departmentNames.length)];
+    }
+}
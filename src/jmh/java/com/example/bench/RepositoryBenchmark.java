@@ -0,0 +1,185 @@
+package com.example.bench;
+
+import com.example.model.Department;
+import com.example.model.Employee;
+import com.example.repository.GenericRepository;
+import com.example.repository.KeysetPage;
+import org.openjdk.jmh.annotations.*;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and throughput of the GenericRepository read and write paths.
+ * The persistence context is cleared before every operation so that each call reaches
+ * the second-level cache or the database instead of the first-level cache.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RepositoryBenchmark {
+    private static final int PAGE_SIZE = 20;
+    private static final int MULTI_GET_SIZE = 1000;
+
+    private EntityManager em;
+    private GenericRepository repo;
+    private SplittableRandom random;
+    private String keysetCursor;
+
+    @Setup(Level.Iteration)
+    public void setUp(BenchmarkDatabase db) {
+        em = db.emf.createEntityManager();
+        repo = db.newRepository(em);
+        random = new SplittableRandom(42);
+        keysetCursor = null;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        em.close();
+    }
+
+    @Benchmark
+    public Employee findById(BenchmarkDatabase db) {
+        em.clear();
+        return repo.findById(Employee.class, db.employeeIds[random.nextInt(db.employeeIds.length)]);
+    }
+
+    /** Loads 1,000 random ids; should take a few IN queries, not one query per id. */
+    @Benchmark
+    @OperationsPerInvocation(MULTI_GET_SIZE)
+    public List<Employee> findAllById(BenchmarkDatabase db) {
+        em.clear();
+        List<Long> ids = new ArrayList<>(MULTI_GET_SIZE);
+        for (int i = 0; i < MULTI_GET_SIZE; i++) {
+            ids.add(db.employeeIds[random.nextInt(db.employeeIds.length)]);
+        }
+        return repo.findAllById(Employee.class, ids);
+    }
+
+    /** Loads the whole table; the cost is in hydrating and managing every row. */
+    @Benchmark
+    public List<Employee> findAll() {
+        em.clear();
+        return repo.findAll(Employee.class);
+    }
+
+    @Benchmark
+    public List<Employee> findByEmail(BenchmarkDatabase db) {
+        em.clear();
+        return repo.findBy(Employee.class, "email", db.emails[random.nextInt(db.emails.length)]);
+    }
+
+    /** A prefix LIKE on an indexed column; roughly one employee in eight matches. */
+    @Benchmark
+    public List<Employee> findByLike() {
+        em.clear();
+        return repo.findByLike(Employee.class, "lastName", "Yıl%");
+    }
+
+    /** Sorts the whole table case-insensitively, so no index can provide the order. */
+    @Benchmark
+    public List<Employee> findAllSorted() {
+        em.clear();
+        return repo.findAllSorted(Employee.class, "lastName", true);
+    }
+
+    @Benchmark
+    public Department findOneByDepartmentName(BenchmarkDatabase db) {
+        em.clear();
+        return repo.findOneBy(Department.class, "name", db.departmentNames[random.nextInt(db.departmentNames.length)]);
+    }
+
+    @Benchmark
+    public List<Employee> findBuilderGetResult() {
+        em.clear();
+        return repo.findBy(Employee.class)
+                .where("firstName", "Ali")
+                .like("lastName", "Y%")
+                .orderBy("salary", true)
+                .page(1, PAGE_SIZE)
+                .getResult();
+    }
+
+    @Benchmark
+    public long count() {
+        return repo.count(Employee.class);
+    }
+
+    @Benchmark
+    public boolean existsById(BenchmarkDatabase db) {
+        em.clear();
+        return repo.existsById(Employee.class, db.employeeIds[random.nextInt(db.employeeIds.length)]);
+    }
+
+    @Benchmark
+    public List<Employee> shallowOffsetPage() {
+        em.clear();
+        return repo.findAllPaged(Employee.class, 1, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Employee> deepOffsetPage(BenchmarkDatabase db) {
+        em.clear();
+        int lastPage = Math.max(1, db.employeeIds.length / PAGE_SIZE);
+        return repo.findAllPaged(Employee.class, lastPage, PAGE_SIZE);
+    }
+
+    /** Walks the whole table page by page; the cost per page should not depend on the depth. */
+    @Benchmark
+    public KeysetPage<Employee> keysetNextPage() {
+        em.clear();
+        KeysetPage<Employee> page = keysetCursor == null
+                ? repo.findBy(Employee.class).getKeysetPage(PAGE_SIZE)
+                : repo.findBy(Employee.class).after(keysetCursor).getKeysetPage(PAGE_SIZE);
+        keysetCursor = page.getNextCursor();
+        return page;
+    }
+
+    @Benchmark
+    public Employee save(BenchmarkDatabase db) {
+        em.clear();
+        em.getTransaction().begin();
+        Employee employee = repo.findById(Employee.class, db.employeeIds[random.nextInt(db.employeeIds.length)]);
+        employee.setSalary(4000.0 + random.nextInt(4000));
+        Employee saved = repo.save(employee);
+        em.getTransaction().commit();
+        return saved;
+    }
+
+    /** Deletes an employee inserted before the invocation, so the table keeps its size. */
+    @Benchmark
+    public void delete(Inserted inserted) {
+        em.clear();
+        em.getTransaction().begin();
+        repo.delete(inserted.employee);
+        em.getTransaction().commit();
+    }
+
+    /** One freshly inserted employee per invocation; the insert is not part of the measurement. */
+    @State(Scope.Thread)
+    public static class Inserted {
+        private long sequence;
+
+        Employee employee;
+
+        @Setup(Level.Invocation)
+        public void insert(BenchmarkDatabase db) {
+            EntityManager em = db.emf.createEntityManager();
+            try {
+                em.getTransaction().begin();
+                employee = BenchmarkDatabase.newEmployee(db.employeeIds.length + sequence++);
+                em.persist(employee);
+                em.getTransaction().commit();
+            } finally {
+                em.close();
+            }
+        }
+    }
+}
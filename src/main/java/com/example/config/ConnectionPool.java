@@ -0,0 +1,52 @@
+package com.example.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import javax.sql.DataSource;
+
+/**
+ * HikariCP connection pool used instead of Hibernate's built-in, non-production pool.
+ * Pool metrics are available through {@link #getStats()} and JMX (com.zaxxer.hikari:type=Pool).
+ */
+public class ConnectionPool implements AutoCloseable {
+    private final HikariDataSource dataSource;
+
+    public ConnectionPool(DataSourceConfig config) {
+        HikariConfig hikari = new HikariConfig();
+        hikari.setPoolName(config.getPoolName());
+        hikari.setJdbcUrl(config.getUrl());
+        hikari.setUsername(config.getUser());
+        hikari.setPassword(config.getPassword());
+        hikari.setMinimumIdle(config.getMinIdle());
+        hikari.setMaximumPoolSize(config.getMaxSize());
+        hikari.setConnectionTimeout(config.getConnectionTimeoutMillis());
+        hikari.setLeakDetectionThreshold(config.getLeakDetectionMillis());
+        // Hibernate is told the same through hibernate.connection.provider_disables_autocommit
+        hikari.setAutoCommit(false);
+        hikari.setRegisterMbeans(true);
+        this.dataSource = new HikariDataSource(hikari);
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public int getMaximumPoolSize() {
+        return dataSource.getMaximumPoolSize();
+    }
+
+    public PoolStats getStats() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return new PoolStats(pool.getActiveConnections(), pool.getIdleConnections(),
+                pool.getTotalConnections(), pool.getThreadsAwaitingConnection());
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+
+    public record PoolStats(int active, int idle, int total, int threadsAwaitingConnection) {}
+}
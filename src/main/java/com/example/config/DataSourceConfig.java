@@ -0,0 +1,79 @@
+package com.example.config;
+
+/**
+ * Settings of the pooled DataSource created by {@link ConnectionPool}.
+ * Defaults match persistence.xml and can be overridden with system properties,
+ * e.g. -Ddb.url=jdbc:h2:file:./data/corp -Ddb.pool.maxSize=20.
+ */
+public class DataSourceConfig {
+    private String url = "jdbc:h2:mem:test;DB_CLOSE_DELAY=-1";
+    private String user = "sa";
+    private String password = "";
+    private int minIdle = 2;
+    private int maxSize = 10;
+    private long connectionTimeoutMillis = 30_000;
+    // Connections held longer than this are logged with the stack trace of the borrower; 0 disables it
+    private long leakDetectionMillis = 60_000;
+    private String poolName = "corpPU-pool";
+
+    /** Returns the defaults, overridden by any db.* system properties. */
+    public static DataSourceConfig fromSystemProperties() {
+        DataSourceConfig config = new DataSourceConfig();
+        config.url = System.getProperty("db.url", config.url);
+        config.user = System.getProperty("db.user", config.user);
+        config.password = System.getProperty("db.password", config.password);
+        config.minIdle = Integer.getInteger("db.pool.minIdle", config.minIdle);
+        config.maxSize = Integer.getInteger("db.pool.maxSize", config.maxSize);
+        config.connectionTimeoutMillis = Long.getLong("db.pool.connectionTimeoutMillis", config.connectionTimeoutMillis);
+        config.leakDetectionMillis = Long.getLong("db.pool.leakDetectionMillis", config.leakDetectionMillis);
+        return config;
+    }
+
+    public DataSourceConfig url(String url) {
+        this.url = url;
+        return this;
+    }
+
+    public DataSourceConfig user(String user) {
+        this.user = user;
+        return this;
+    }
+
+    public DataSourceConfig password(String password) {
+        this.password = password;
+        return this;
+    }
+
+    public DataSourceConfig poolSize(int minIdle, int maxSize) {
+        if (minIdle < 0 || maxSize <= 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: minIdle=" + minIdle + ", maxSize=" + maxSize);
+        }
+        this.minIdle = minIdle;
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    public DataSourceConfig connectionTimeoutMillis(long connectionTimeoutMillis) {
+        this.connectionTimeoutMillis = connectionTimeoutMillis;
+        return this;
+    }
+
+    public DataSourceConfig leakDetectionMillis(long leakDetectionMillis) {
+        this.leakDetectionMillis = leakDetectionMillis;
+        return this;
+    }
+
+    public DataSourceConfig poolName(String poolName) {
+        this.poolName = poolName;
+        return this;
+    }
+
+    public String getUrl() { return url; }
+    public String getUser() { return user; }
+    public String getPassword() { return password; }
+    public int getMinIdle() { return minIdle; }
+    public int getMaxSize() { return maxSize; }
+    public long getConnectionTimeoutMillis() { return connectionTimeoutMillis; }
+    public long getLeakDetectionMillis() { return leakDetectionMillis; }
+    public String getPoolName() { return poolName; }
+}
@@ -1,19 +1,72 @@
 package com.example.config;
 
-import javax.persistence.EntityManagerFactory;
-import javax.persistence.Persistence;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import java.util.HashMap;
+import java.util.Map;
 
 public class JPAUtil {
-    private static final EntityManagerFactory emf =
-            Persistence.createEntityManagerFactory("corpPU");
+    public static final String PERSISTENCE_UNIT = "corpPU";
 
+    private static volatile EntityManagerFactory emf;
+    private static volatile ConnectionPool pool;
+
+    /**
+     * Returns the application factory, backed by a {@link ConnectionPool} configured
+     * from system properties (see {@link DataSourceConfig#fromSystemProperties()}).
+     */
     public static EntityManagerFactory getEntityManagerFactory() {
-        return emf;
+        EntityManagerFactory factory = emf;
+        if (factory == null) {
+            synchronized (JPAUtil.class) {
+                factory = emf;
+                if (factory == null) {
+                    ConnectionPool connectionPool = new ConnectionPool(DataSourceConfig.fromSystemProperties());
+                    try {
+                        factory = createEntityManagerFactory(connectionPool, Map.of());
+                    } catch (RuntimeException e) {
+                        connectionPool.close();
+                        throw e;
+                    }
+                    pool = connectionPool;
+                    emf = factory;
+                }
+            }
+        }
+        return factory;
+    }
+
+    /** Returns the pool behind {@link #getEntityManagerFactory()}. */
+    public static ConnectionPool getConnectionPool() {
+        getEntityManagerFactory();
+        return pool;
+    }
+
+    /**
+     * Creates a separate factory for the persistence unit, with the given properties
+     * overriding persistence.xml (e.g. another JDBC URL for benchmarks).
+     * The caller is responsible for closing it.
+     */
+    public static EntityManagerFactory createEntityManagerFactory(Map<String, ?> overrides) {
+        return Persistence.createEntityManagerFactory(PERSISTENCE_UNIT, overrides);
+    }
+
+    /** Creates a separate factory that takes its connections from the given pool. */
+    public static EntityManagerFactory createEntityManagerFactory(ConnectionPool connectionPool, Map<String, ?> overrides) {
+        Map<String, Object> properties = new HashMap<>(overrides);
+        properties.put("jakarta.persistence.nonJtaDataSource", connectionPool.getDataSource());
+        properties.put("hibernate.connection.provider_disables_autocommit", true);
+        return createEntityManagerFactory(properties);
     }
 
     public static void shutdown() {
-        if (emf != null && emf.isOpen()) {
-            emf.close();
+        EntityManagerFactory factory = emf;
+        if (factory != null && factory.isOpen()) {
+            factory.close();
+        }
+        ConnectionPool connectionPool = pool;
+        if (connectionPool != null) {
+            connectionPool.close();
         }
     }
 }
@@ -0,0 +1,50 @@
+package com.example.config;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Access to the second-level cache regions configured in ehcache.xml.
+ */
+public final class SecondLevelCache {
+    private SecondLevelCache() {}
+
+    /**
+     * Returns hit/miss/put counts per cache region, keyed by region name. Counts are only
+     * collected while Hibernate statistics are on, e.g. while RepositoryMetrics are enabled.
+     */
+    public static Map<String, RegionStats> regionStatistics(EntityManagerFactory emf) {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        Map<String, RegionStats> result = new TreeMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+            if (stats != null) {
+                result.put(region, new RegionStats(stats.getHitCount(), stats.getMissCount(),
+                        stats.getPutCount(), stats.getElementCountInMemory()));
+            }
+        }
+        return result;
+    }
+
+    /** Evicts all cached entities of the given class. */
+    public static void evict(EntityManagerFactory emf, Class<?> entityClass) {
+        emf.getCache().evict(entityClass);
+    }
+
+    /** Evicts every entity, collection and query region. */
+    public static void evictAll(EntityManagerFactory emf) {
+        emf.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    public record RegionStats(long hitCount, long missCount, long putCount, long elementCountInMemory) {
+        public double hitRatio() {
+            long total = hitCount + missCount;
+            return total == 0 ? 0 : (double) hitCount / total;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.exception;
+
+/**
+ * Exception class for when an entity was changed by another transaction
+ * since it was read (its version no longer matches)
+ */
+public class OptimisticLockConflictException extends RuntimeException {
+    public OptimisticLockConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
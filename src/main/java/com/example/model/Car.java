@@ -1,6 +1,6 @@
 package com.example.model;
 
-import javax.persistence.Embeddable;
+import jakarta.persistence.Embeddable;
 
 @Embeddable
 public class Car {
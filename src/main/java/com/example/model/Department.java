@@ -1,23 +1,44 @@
 package com.example.model;
 
-import javax.persistence.*;
+import com.example.repository.QueryCacheable;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.*;
 import java.util.*;
 
 @Entity
 @Table(name = "departments")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "departments")
+// Rarely written and looked up by name, so name lookups are served from the query cache
+@QueryCacheable
+@NamedEntityGraph(name = "Department.employees", attributeNodes = @NamedAttributeNode("employees"))
+@NamedEntityGraph(name = "Department.details", attributeNodes = {
+        @NamedAttributeNode("employees"),
+        @NamedAttributeNode("employeeCarMap")
+})
 public class Department {
 
+    // Sequence with a pooled optimizer, so inserts can be JDBC batched (IDENTITY disables batching)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "department_seq")
+    @SequenceGenerator(name = "department_seq", sequenceName = "departments_seq", allocationSize = 50)
     private Long id;
 
+    // Optimistic lock version, also bumped when employeeCarMap changes
+    @Version
+    private Long version;
+
     @Column(unique = true, nullable = false)
     private String name;
 
     @OneToMany(mappedBy = "department", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "departments.employees")
     private List<Employee> employees = new ArrayList<>();
 
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "departments.employeeCarMap")
     @CollectionTable(
             name = "department_employee_car",
             joinColumns = @JoinColumn(name = "department_id")
@@ -32,6 +53,7 @@ public class Department {
     }
 
     public Long getId() { return id; }
+    public Long getVersion() { return version; }
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
@@ -1,15 +1,32 @@
 package com.example.model;
 
-import javax.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.*;
 
 @Entity
-@Table(name = "employees")
+// Indexes on the columns the repository filters and sorts on; column names are the attribute names
+@Table(name = "employees", indexes = {
+        @Index(name = "idx_employees_email", columnList = "email"),
+        @Index(name = "idx_employees_last_name", columnList = "lastName"),
+        @Index(name = "idx_employees_salary", columnList = "salary"),
+        @Index(name = "idx_employees_department_salary", columnList = "department_id, salary")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "employees")
 public class Employee {
 
+    // Sequence with a pooled optimizer, so inserts can be JDBC batched (IDENTITY disables batching)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_seq")
+    @SequenceGenerator(name = "employee_seq", sequenceName = "employees_seq", allocationSize = 50)
     private Long id;
 
+    // Incremented on every update; a stale version makes the update fail instead of overwriting
+    @Version
+    private Long version;
+
     private String firstName;
     private String lastName;
     private String email;
@@ -29,6 +46,7 @@ public class Employee {
     }
 
     public Long getId() { return id; }
+    public Long getVersion() { return version; }
     public String getFirstName() { return firstName; }
     public void setFirstName(String firstName) { this.firstName = firstName; }
     public String getLastName() { return lastName; }
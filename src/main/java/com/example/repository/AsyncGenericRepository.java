@@ -0,0 +1,55 @@
+package com.example.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public interface AsyncGenericRepository extends AutoCloseable {
+    <T> CompletableFuture<T> findById(Class<T> entityClass, Object id);
+
+    <T> CompletableFuture<List<T>> findAll(Class<T> entityClass);
+
+    <T> CompletableFuture<List<T>> findAllById(Class<T> entityClass, Collection<?> ids);
+
+    <T> CompletableFuture<IdLookupResult<T>> tryFindAllById(Class<T> entityClass, Collection<?> ids);
+
+    <T> CompletableFuture<List<T>> findBy(Class<T> entityClass, String fieldName, Object value);
+
+    <T> CompletableFuture<T> save(T entity);
+
+    <T> CompletableFuture<Void> delete(T entity);
+
+    /** Updates in its own transaction, retried on optimistic lock conflicts per {@link RetryPolicy#DEFAULT}. */
+    <T> CompletableFuture<T> update(Class<T> entityClass, Object id, Consumer<? super T> changes);
+
+    <T> CompletableFuture<Void> deleteById(Class<T> entityClass, Object id);
+
+    <T> CompletableFuture<List<T>> saveAll(Iterable<T> entities);
+
+    <T> CompletableFuture<Void> deleteAll(Iterable<T> entities);
+
+    <T> CompletableFuture<Void> deleteAllById(Class<T> entityClass, Collection<?> ids);
+
+    <T> CompletableFuture<Long> count(Class<T> entityClass);
+
+    <T> CompletableFuture<Boolean> existsById(Class<T> entityClass, Object id);
+
+    <T> CompletableFuture<T> findOneBy(Class<T> entityClass, String fieldName, Object value);
+
+    <T> CompletableFuture<List<T>> findByLike(Class<T> entityClass, String fieldName, String pattern);
+
+    <T> CompletableFuture<List<T>> findAllSorted(Class<T> entityClass, String fieldName, boolean ascending);
+
+    <T> CompletableFuture<List<T>> findAllPaged(Class<T> entityClass, int page, int pageSize);
+
+    /** Runs arbitrary read work, e.g. a FindBuilder query, on its own EntityManager. */
+    <R> CompletableFuture<R> read(Function<GenericRepository, R> work);
+
+    /** Runs arbitrary work in its own transaction. */
+    <R> CompletableFuture<R> write(Function<GenericRepository, R> work);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,174 @@
+package com.example.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs each repository call on its own virtual thread with its own EntityManager,
+ * so independent lookups can be fanned out in parallel:
+ *
+ * CompletableFuture<Department> dep = async.findOneBy(Department.class, "name", "IT");
+ * CompletableFuture<Long> count = async.count(Employee.class);
+ * CompletableFuture<List<Employee>> page = async.findAllPaged(Employee.class, 1, 20);
+ * CompletableFuture.allOf(dep, count, page).join();
+ *
+ * At most {@code maxConcurrency} calls run at once, which should match the connection
+ * pool size so that virtual threads queue here instead of inside the pool.
+ * Returned entities are detached.
+ */
+public class AsyncGenericRepositoryImpl implements AsyncGenericRepository {
+
+    private final RepositoryFactory factory;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+
+    public AsyncGenericRepositoryImpl(RepositoryFactory factory, int maxConcurrency) {
+        if (factory == null) {
+            throw new IllegalArgumentException("RepositoryFactory null olamaz.");
+        }
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Eşzamanlılık sınırı 0 veya negatif olamaz.");
+        }
+        this.factory = factory;
+        this.permits = new Semaphore(maxConcurrency);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Override
+    public <T> CompletableFuture<T> findById(Class<T> entityClass, Object id) {
+        return read(repo -> repo.findById(entityClass, id));
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> findAll(Class<T> entityClass) {
+        return read(repo -> repo.findAll(entityClass));
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> findAllById(Class<T> entityClass, Collection<?> ids) {
+        return read(repo -> repo.findAllById(entityClass, ids));
+    }
+
+    @Override
+    public <T> CompletableFuture<IdLookupResult<T>> tryFindAllById(Class<T> entityClass, Collection<?> ids) {
+        return read(repo -> repo.tryFindAllById(entityClass, ids));
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> findBy(Class<T> entityClass, String fieldName, Object value) {
+        return read(repo -> repo.findBy(entityClass, fieldName, value));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> save(T entity) {
+        return write(repo -> repo.save(entity));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> update(Class<T> entityClass, Object id, Consumer<? super T> changes) {
+        return submit(() -> factory.update(entityClass, id, changes));
+    }
+
+    @Override
+    public <T> CompletableFuture<Void> delete(T entity) {
+        return write(repo -> {
+            repo.delete(entity);
+            return null;
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<Void> deleteById(Class<T> entityClass, Object id) {
+        return write(repo -> {
+            repo.deleteById(entityClass, id);
+            return null;
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> saveAll(Iterable<T> entities) {
+        return write(repo -> repo.saveAll(entities));
+    }
+
+    @Override
+    public <T> CompletableFuture<Void> deleteAll(Iterable<T> entities) {
+        return write(repo -> {
+            repo.deleteAll(entities);
+            return null;
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<Void> deleteAllById(Class<T> entityClass, Collection<?> ids) {
+        return write(repo -> {
+            repo.deleteAllById(entityClass, ids);
+            return null;
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<Long> count(Class<T> entityClass) {
+        return read(repo -> repo.count(entityClass));
+    }
+
+    @Override
+    public <T> CompletableFuture<Boolean> existsById(Class<T> entityClass, Object id) {
+        return read(repo -> repo.existsById(entityClass, id));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> findOneBy(Class<T> entityClass, String fieldName, Object value) {
+        return read(repo -> repo.findOneBy(entityClass, fieldName, value));
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> findByLike(Class<T> entityClass, String fieldName, String pattern) {
+        return read(repo -> repo.findByLike(entityClass, fieldName, pattern));
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> findAllSorted(Class<T> entityClass, String fieldName, boolean ascending) {
+        return read(repo -> repo.findAllSorted(entityClass, fieldName, ascending));
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> findAllPaged(Class<T> entityClass, int page, int pageSize) {
+        return read(repo -> repo.findAllPaged(entityClass, page, pageSize));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> read(Function<GenericRepository, R> work) {
+        return submit(() -> factory.withRepository(work));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> write(Function<GenericRepository, R> work) {
+        return submit(() -> factory.inTransaction(work));
+    }
+
+    /** Stops accepting calls; calls already submitted still complete. */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <R> CompletableFuture<R> submit(Supplier<R> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for a connection permit.");
+            }
+            try {
+                return call.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.repository;
+
+import com.example.exception.InvalidFieldException;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.ParameterExpression;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Query compiled by {@link CriteriaFindBuilder#compile()}: the JPQL rendered from the
+ * criteria tree, whose translation Hibernate keeps in its bounded plan cache, so
+ * executing it only creates the query and binds the parameter values.
+ * Instances are immutable and can be shared between threads and EntityManagers
+ * of the same factory.
+ *
+ * Example usage:
+ * List<Employee> result = compiled.getResult(em, 7000.0, "IT");
+ */
+public final class CompiledQuery<T> {
+    private final String jpql;
+    private final Class<T> resultType;
+    private final int maxResults;
+    private final Class<?>[] parameterTypes;
+    private final boolean[] multiValued;
+    private final Object[] defaultValues;
+
+    CompiledQuery(String jpql, Class<T> resultType, Parameters parameters, int maxResults) {
+        this.jpql = jpql;
+        this.resultType = resultType;
+        this.maxResults = maxResults;
+        this.parameterTypes = parameters.types.toArray(new Class<?>[0]);
+        this.defaultValues = parameters.values.toArray();
+        this.multiValued = new boolean[parameterTypes.length];
+        for (int i = 0; i < multiValued.length; i++) {
+            multiValued[i] = parameters.multiValued.get(i);
+        }
+    }
+
+    /** Executes the query with the values given to the builder. */
+    public List<T> getResult(EntityManager em) {
+        return bind(em.createQuery(jpql, resultType), defaultValues).getResultList();
+    }
+
+    /**
+     * Executes the query with new values, one per parameter in the order the
+     * conditions were added; between takes two, in takes a collection.
+     */
+    public List<T> getResult(EntityManager em, Object... values) {
+        if (values.length != parameterTypes.length) {
+            throw new InvalidFieldException("Expected " + parameterTypes.length + " values but got " + values.length + ".");
+        }
+        for (int i = 0; i < values.length; i++) {
+            checkValue(i, values[i]);
+        }
+        return bind(em.createQuery(jpql, resultType), values).getResultList();
+    }
+
+    public int getParameterCount() {
+        return parameterTypes.length;
+    }
+
+    private TypedQuery<T> bind(TypedQuery<T> query, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            query.setParameter(parameterName(i), values[i]);
+        }
+        if (maxResults > 0) {
+            query.setMaxResults(maxResults);
+        }
+        return query;
+    }
+
+    private void checkValue(int index, Object value) {
+        if (value == null) {
+            throw new InvalidFieldException("Value " + index + " cannot be null.");
+        }
+        if (multiValued[index]) {
+            if (!(value instanceof Collection<?> elements) || elements.isEmpty()) {
+                throw new InvalidFieldException("Value " + index + " must be a non-empty collection.");
+            }
+            elements.forEach(element -> checkType(index, element));
+        } else {
+            checkType(index, value);
+        }
+    }
+
+    private void checkType(int index, Object value) {
+        if (!parameterTypes[index].isInstance(value)) {
+            throw new InvalidFieldException("Value " + index + " must be of type " + parameterTypes[index].getSimpleName()
+                    + " but was " + (value == null ? "null" : value.getClass().getSimpleName()) + ".");
+        }
+    }
+
+    private static String parameterName(int index) {
+        return "p" + index;
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledQuery{" + jpql + (maxResults > 0 ? ", maxResults=" + maxResults : "") + '}';
+    }
+
+    /** Collects the parameters declared while the criteria tree is built. */
+    static final class Parameters {
+        private final List<Class<?>> types = new ArrayList<>();
+        private final List<Object> values = new ArrayList<>();
+        private final List<Boolean> multiValued = new ArrayList<>();
+
+        /** Records a parameter and declares it in the criteria tree being built. */
+        <Y> ParameterExpression<Y> add(CriteriaBuilder cb, Class<Y> type, Object value, boolean multi) {
+            ParameterExpression<Y> parameter = cb.parameter(type, parameterName(types.size()));
+            record(type, value, multi);
+            return parameter;
+        }
+
+        /** Records a parameter; a multi-valued one is checked against its element type. */
+        void record(Class<?> type, Object value, boolean multi) {
+            types.add(type);
+            values.add(value);
+            multiValued.add(multi);
+        }
+    }
+}
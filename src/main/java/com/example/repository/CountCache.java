@@ -0,0 +1,64 @@
+package com.example.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Short lived cache of count query results, keyed on the query shape and its parameter values.
+ * Used by {@link FindBuilder#cachedCount(java.time.Duration)} so that paging through
+ * a result does not repeat the count query for every page.
+ */
+public class CountCache {
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private static final Map<EntityManagerFactory, CountCache> CACHES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final int maxSize;
+    private final Map<Key, Entry> counts = new ConcurrentHashMap<>();
+
+    public CountCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be greater than 0.");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /** Returns the cache shared by all repositories of the given factory. */
+    public static CountCache forFactory(EntityManagerFactory emf) {
+        return CACHES.computeIfAbsent(emf, f -> new CountCache(DEFAULT_MAX_SIZE));
+    }
+
+    /** Returns the cached count if it is younger than maxAgeNanos, otherwise runs the count query. */
+    public long get(Key key, long maxAgeNanos, LongSupplier countQuery) {
+        long now = System.nanoTime();
+        Entry entry = counts.get(key);
+        if (entry != null && now - entry.loadedAt() < maxAgeNanos) {
+            return entry.count();
+        }
+        long count = countQuery.getAsLong();
+        if (counts.size() >= maxSize) {
+            counts.entrySet().removeIf(e -> now - e.getValue().loadedAt() >= maxAgeNanos);
+            if (counts.size() >= maxSize) {
+                counts.clear();
+            }
+        }
+        counts.put(key, new Entry(count, now));
+        return count;
+    }
+
+    /** Drops all cached counts, e.g. after bulk writes. */
+    public void clear() {
+        counts.clear();
+    }
+
+    public int size() {
+        return counts.size();
+    }
+
+    public record Key(QueryPlanCache.Key shape, List<Object> parameters) {}
+
+    private record Entry(long count, long loadedAt) {}
+}
@@ -0,0 +1,157 @@
+package com.example.repository;
+
+import com.example.exception.InvalidFieldException;
+import com.example.exception.InvalidPaginationException;
+
+import org.hibernate.query.sqm.tree.SqmVisitableNode;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.*;
+import jakarta.persistence.metamodel.SingularAttribute;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Type-safe query builder on the Criteria API, taking attributes of the generated
+ * JPA metamodel (Employee_, Department_) instead of field name strings.
+ *
+ * {@link #compile()} renders the criteria tree to JPQL once per query shape and keeps
+ * it in the factory's {@link QueryPlanCache}, so builders with the same conditions and
+ * sorting skip building the tree; Hibernate's plan cache holds the translation of
+ * that JPQL. Keep the returned {@link CompiledQuery} and execute it with new values to
+ * also skip the builder. {@link #getResult()} compiles on first use and reuses that.
+ *
+ * Example usage:
+ * import static com.example.repository.Restriction.*;
+ *
+ * CompiledQuery<Employee> query = new CriteriaFindBuilder<>(em, Employee.class)
+ *     .where(Employee_.salary, gt(5000.0))
+ *     .where(Employee_.department, Department_.name, eq("IT"))
+ *     .orderBy(Employee_.lastName, true)
+ *     .compile();
+ *
+ * List<Employee> it = query.getResult(em);                 // values given above
+ * List<Employee> sales = query.getResult(em, 7000.0, "Sales"); // same query, new values
+ */
+public class CriteriaFindBuilder<T> {
+    private final EntityManager em;
+    private final Class<T> entityClass;
+    private final QueryPlanCache queryCache;
+
+    private final List<Clause> clauses = new ArrayList<>();
+    private final List<Sort> sorts = new ArrayList<>();
+    private int maxResults;
+
+    private CompiledQuery<T> compiled;
+
+    public CriteriaFindBuilder(EntityManager em, Class<T> entityClass) {
+        this.em = em;
+        this.entityClass = EntityMetadata.forFactory(em.getEntityManagerFactory()).get(entityClass).javaType();
+        this.queryCache = QueryPlanCache.forFactory(em.getEntityManagerFactory());
+    }
+
+    /** Adds a condition on an attribute of the entity. */
+    public <Y> CriteriaFindBuilder<T> where(SingularAttribute<? super T, Y> attribute, Restriction<Y> restriction) {
+        return add(new Clause(List.of(requireAttribute(attribute)), attribute.getJavaType(), requireRestriction(restriction)));
+    }
+
+    /** Adds a condition on an attribute of an associated entity, e.g. Employee_.department, Department_.name. */
+    public <X, Y> CriteriaFindBuilder<T> where(SingularAttribute<? super T, X> association,
+                                               SingularAttribute<? super X, Y> attribute, Restriction<Y> restriction) {
+        return add(new Clause(List.of(requireAttribute(association), requireAttribute(attribute)),
+                attribute.getJavaType(), requireRestriction(restriction)));
+    }
+
+    /** Adds a sort column; calling it again adds a further one. */
+    public <Y extends Comparable<? super Y>> CriteriaFindBuilder<T> orderBy(SingularAttribute<? super T, Y> attribute, boolean ascending) {
+        sorts.add(new Sort(requireAttribute(attribute), ascending));
+        compiled = null;
+        return this;
+    }
+
+    /** Limits the number of returned rows. */
+    public CriteriaFindBuilder<T> limit(int maxResults) {
+        if (maxResults <= 0) {
+            throw new InvalidPaginationException("Max results must be greater than 0.");
+        }
+        this.maxResults = maxResults;
+        compiled = null;
+        return this;
+    }
+
+    /** Executes the query with the values given to this builder. */
+    public List<T> getResult() {
+        if (compiled == null) {
+            compiled = compile();
+        }
+        return compiled.getResult(em);
+    }
+
+    /** Collects the parameter values and looks up, or renders, the JPQL of this query shape. */
+    public CompiledQuery<T> compile() {
+        CompiledQuery.Parameters parameters = new CompiledQuery.Parameters();
+        List<String> fields = new ArrayList<>(clauses.size());
+        for (Clause clause : clauses) {
+            clause.restriction().collect(EntityMetadata.boxed(clause.type()), parameters);
+            StringJoiner path = new StringJoiner(".");
+            clause.path().forEach(attribute -> path.add(attribute.getName()));
+            fields.add(clause.restriction().operator().name().toLowerCase() + ":" + path);
+        }
+        StringJoiner sort = new StringJoiner(", ");
+        sorts.forEach(order -> sort.add(order.attribute().getName() + (order.ascending() ? " asc" : " desc")));
+        QueryPlanCache.Key key = new QueryPlanCache.Key(entityClass, "criteria", List.copyOf(fields),
+                sorts.isEmpty() ? null : sort.toString(), false);
+        return new CompiledQuery<>(queryCache.jpql(key, this::render), entityClass, parameters, maxResults);
+    }
+
+    /** Builds the criteria tree and renders it as JPQL with the parameters :p0, :p1, ... */
+    private String render() {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        CompiledQuery.Parameters parameters = new CompiledQuery.Parameters();
+
+        List<Predicate> predicates = new ArrayList<>(clauses.size());
+        for (Clause clause : clauses) {
+            Path<?> path = root;
+            for (SingularAttribute<?, ?> attribute : clause.path()) {
+                path = path.get(attribute.getName());
+            }
+            predicates.add(clause.restriction().toPredicate(cb, path, EntityMetadata.boxed(clause.type()), parameters));
+        }
+        query.select(root).where(predicates.toArray(new Predicate[0]));
+
+        List<Order> orders = new ArrayList<>(sorts.size());
+        for (Sort sort : sorts) {
+            Path<?> path = root.get(sort.attribute().getName());
+            orders.add(sort.ascending() ? cb.asc(path) : cb.desc(path));
+        }
+        query.orderBy(orders);
+        return ((SqmVisitableNode) query).toHqlString();
+    }
+
+    private CriteriaFindBuilder<T> add(Clause clause) {
+        clauses.add(clause);
+        compiled = null;
+        return this;
+    }
+
+    private static <A extends SingularAttribute<?, ?>> A requireAttribute(A attribute) {
+        if (attribute == null) {
+            throw new InvalidFieldException("Attribute cannot be null; is the metamodel generated?");
+        }
+        return attribute;
+    }
+
+    private static <Y> Restriction<Y> requireRestriction(Restriction<Y> restriction) {
+        if (restriction == null) {
+            throw new InvalidFieldException("Restriction cannot be null.");
+        }
+        return restriction;
+    }
+
+    private record Clause(List<SingularAttribute<?, ?>> path, Class<?> type, Restriction<?> restriction) {}
+
+    private record Sort(SingularAttribute<?, ?> attribute, boolean ascending) {}
+}
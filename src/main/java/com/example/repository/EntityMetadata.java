@@ -0,0 +1,245 @@
+package com.example.repository;
+
+import com.example.exception.InvalidEntityException;
+import com.example.exception.InvalidFieldException;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Metamodel information about one entity class, built once per EntityManagerFactory.
+ *
+ * Field names given to the repository and its builders are resolved against the
+ * metamodel here before they are put into JPQL, so an unknown or malformed name
+ * fails with an {@link InvalidFieldException} instead of in the query parser.
+ * Resolved paths are cached, which makes repeated validation a map lookup.
+ *
+ * Example usage:
+ * EntityMetadata<Employee> employees = EntityMetadata.forFactory(emf).get(Employee.class);
+ * employees.checkValue("department.name", "IT");
+ */
+final class EntityMetadata<T> {
+    private static final Map<EntityManagerFactory, Registry> REGISTRIES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final Map<Class<?>, Class<?>> WRAPPERS = Map.of(
+            boolean.class, Boolean.class, byte.class, Byte.class, short.class, Short.class,
+            char.class, Character.class, int.class, Integer.class, long.class, Long.class,
+            float.class, Float.class, double.class, Double.class);
+
+    private final EntityType<T> type;
+    private final String idAttributeName;
+    private final Class<?> idType;
+    private final boolean cacheable;
+    private final boolean queryCacheable;
+    private final boolean versioned;
+    // Validated attribute paths, e.g. "department.name"
+    private final Map<String, AttributePath> paths = new ConcurrentHashMap<>();
+
+    private EntityMetadata(EntityType<T> type) {
+        this.type = type;
+        this.idType = boxed(type.getIdType().getJavaType());
+        this.idAttributeName = type.getId(type.getIdType().getJavaType()).getName();
+        this.cacheable = type.getJavaType().isAnnotationPresent(Cacheable.class);
+        this.queryCacheable = cacheable && type.getJavaType().isAnnotationPresent(QueryCacheable.class);
+        this.versioned = type.hasVersionAttribute();
+    }
+
+    /** Returns the metadata of all entities of the given factory. */
+    static Registry forFactory(EntityManagerFactory emf) {
+        return REGISTRIES.computeIfAbsent(emf, Registry::new);
+    }
+
+    /** Returns the identifier of the entity, or null if it has not been assigned yet. */
+    static Object idOf(EntityManager em, Object entity) {
+        return em.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+    }
+
+    Class<T> javaType() {
+        return type.getJavaType();
+    }
+
+    /** Returns the name to use in JPQL, which is not always the simple class name. */
+    String entityName() {
+        return type.getName();
+    }
+
+    /** Returns the name of the id attribute, e.g. "id". */
+    String idAttributeName() {
+        return idAttributeName;
+    }
+
+    boolean isCacheable() {
+        return cacheable;
+    }
+
+    /** Whether findBy/findOneBy lookups use the query cache by default, see {@link QueryCacheable}. */
+    boolean isQueryCacheable() {
+        return queryCacheable;
+    }
+
+    /** Whether the entity has a @Version attribute. */
+    boolean isVersioned() {
+        return versioned;
+    }
+
+    boolean acceptsId(Object id) {
+        return idType.isInstance(id);
+    }
+
+    /** Resolves a possibly dotted attribute path, e.g. "department.name". */
+    AttributePath attribute(String path) {
+        AttributePath resolved = paths.get(path);
+        if (resolved == null) {
+            resolved = resolve(path);
+            paths.put(path, resolved);
+        }
+        return resolved;
+    }
+
+    /** Checks that the path exists and that value (if not null) can be compared with it. */
+    void checkValue(String path, Object value) {
+        AttributePath attribute = attribute(path);
+        if (value != null && !attribute.javaType().isInstance(value)) {
+            throw new InvalidFieldException("Value of type " + value.getClass().getSimpleName() + " does not match "
+                    + describe(path) + " of type " + attribute.javaType().getSimpleName() + ".");
+        }
+    }
+
+    /** Checks that the path is a text attribute, as needed for LIKE and lower(). */
+    void checkText(String path) {
+        if (attribute(path).javaType() != String.class) {
+            throw new InvalidFieldException(describe(path) + " is not a text field.");
+        }
+    }
+
+    /** Checks that the path is a single valued attribute with an ordering, as needed for ranges and sorting. */
+    void checkComparable(String path) {
+        AttributePath attribute = attribute(path);
+        if (attribute.collection() || !Comparable.class.isAssignableFrom(attribute.javaType())) {
+            throw new InvalidFieldException(describe(path) + " cannot be compared or sorted.");
+        }
+    }
+
+    /** Checks that the path is a numeric attribute, as needed for sum and avg. */
+    void checkNumeric(String path) {
+        if (!Number.class.isAssignableFrom(attribute(path).javaType())) {
+            throw new InvalidFieldException(describe(path) + " is not a numeric field.");
+        }
+    }
+
+    /** Checks that values of the path can be returned as the given type. */
+    void checkResultType(String path, Class<?> type) {
+        Class<?> javaType = attribute(path).javaType();
+        if (type == null || !boxed(type).isAssignableFrom(javaType)) {
+            throw new InvalidFieldException(describe(path) + " of type " + javaType.getSimpleName()
+                    + " cannot be returned as " + (type == null ? "null" : type.getSimpleName()) + ".");
+        }
+    }
+
+    /** Checks that the path is a direct, single valued attribute that a bulk UPDATE can set. */
+    void checkUpdatable(String path, Object value) {
+        AttributePath attribute = attribute(path);
+        if (path.indexOf('.') >= 0 || attribute.collection() || path.equals(idAttributeName)) {
+            throw new InvalidFieldException(describe(path) + " cannot be updated.");
+        }
+        checkValue(path, value);
+    }
+
+    /** Checks that the path is an association or element collection that can be join fetched. */
+    void checkAssociation(String path) {
+        AttributePath attribute = attribute(path);
+        if (!attribute.association() && !attribute.collection()) {
+            throw new InvalidFieldException(describe(path) + " is not an association or collection.");
+        }
+    }
+
+    private AttributePath resolve(String path) {
+        ManagedType<?> current = type;
+        Attribute<?, ?> attribute = null;
+        boolean optional = false;
+        for (String name : path.split("\\.", -1)) {
+            if (current == null) {
+                throw new InvalidFieldException("Unknown field: " + describe(path));
+            }
+            attribute = findAttribute(current, name);
+            if (attribute == null) {
+                throw new InvalidFieldException("Unknown field: " + describe(path));
+            }
+            optional |= !(attribute instanceof SingularAttribute<?, ?> singular) || singular.isOptional();
+            current = attribute instanceof SingularAttribute<?, ?> singular && singular.getType() instanceof ManagedType<?> managed
+                    ? managed : null;
+        }
+        return new AttributePath(boxed(attribute.getJavaType()), attribute.isAssociation(), attribute.isCollection(), optional);
+    }
+
+    private static Attribute<?, ?> findAttribute(ManagedType<?> type, String name) {
+        for (Attribute<?, ?> attribute : type.getAttributes()) {
+            if (attribute.getName().equals(name)) {
+                return attribute;
+            }
+        }
+        return null;
+    }
+
+    private String describe(String path) {
+        return entityName() + "." + path;
+    }
+
+    static Class<?> boxed(Class<?> type) {
+        return type.isPrimitive() ? WRAPPERS.get(type) : type;
+    }
+
+    /** Java type of a resolved attribute (primitives boxed), its kind and whether its value can be null. */
+    record AttributePath(Class<?> javaType, boolean association, boolean collection, boolean optional) {}
+
+    /** Metadata of every entity of one factory, keyed by class. */
+    static final class Registry {
+        private final Map<Class<?>, EntityMetadata<?>> entities = new ConcurrentHashMap<>();
+
+        private Registry(EntityManagerFactory emf) {
+            for (EntityType<?> type : emf.getMetamodel().getEntities()) {
+                if (type.getJavaType() != null) {
+                    entities.put(type.getJavaType(), new EntityMetadata<>(type));
+                }
+            }
+        }
+
+        /**
+         * Returns the metadata of the class, or of its nearest entity superclass for
+         * proxies and subclasses; null if the class is not an entity.
+         */
+        @SuppressWarnings("unchecked")
+        <E> EntityMetadata<E> lookup(Class<E> entityClass) {
+            for (Class<?> c = entityClass; c != null && c != Object.class; c = c.getSuperclass()) {
+                EntityMetadata<?> metadata = entities.get(c);
+                if (metadata != null) {
+                    if (c != entityClass) {
+                        entities.put(entityClass, metadata);
+                    }
+                    return (EntityMetadata<E>) metadata;
+                }
+            }
+            return null;
+        }
+
+        /** Returns the metadata of the entity class, failing if it is not an entity. */
+        <E> EntityMetadata<E> get(Class<E> entityClass) {
+            if (entityClass == null) {
+                throw new InvalidEntityException("Entity class cannot be null.");
+            }
+            EntityMetadata<E> metadata = lookup(entityClass);
+            if (metadata == null) {
+                throw new InvalidEntityException(entityClass.getSimpleName() + " is not a JPA entity.");
+            }
+            return metadata;
+        }
+    }
+}
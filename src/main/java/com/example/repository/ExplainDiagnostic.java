@@ -0,0 +1,101 @@
+package com.example.repository;
+
+import org.hibernate.Session;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs H2's EXPLAIN for captured statements and reports which of them scan
+ * a whole table instead of using an index. Parameters are bound to null, since
+ * only the access path is of interest.
+ *
+ * Example usage:
+ * SqlCapture capture = new SqlCapture();
+ * EntityManagerFactory emf = JPAUtil.createEntityManagerFactory(capture.properties());
+ * repo.findBy(Employee.class).where("email", "a@b.com").getResult();
+ * List<ExplainDiagnostic.Plan> scans = new ExplainDiagnostic(emf).findTableScans(capture);
+ */
+public class ExplainDiagnostic {
+    // H2 marks a full scan as "/* PUBLIC.EMPLOYEES.tableScan */"
+    private static final Pattern TABLE_SCAN = Pattern.compile("([\\w.]+)\\.tableScan");
+
+    private final EntityManagerFactory emf;
+
+    public ExplainDiagnostic(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    /** Explains every captured statement. */
+    public List<Plan> explain(SqlCapture capture) {
+        return explain(capture.getStatements());
+    }
+
+    /** Explains the captured statements and returns those that scan at least one table. */
+    public List<Plan> findTableScans(SqlCapture capture) {
+        return explain(capture).stream().filter(Plan::hasTableScan).toList();
+    }
+
+    public List<Plan> explain(Collection<SqlCapture.Statement> statements) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.unwrap(Session.class).doReturningWork(connection -> {
+                List<Plan> plans = new ArrayList<>(statements.size());
+                for (SqlCapture.Statement statement : statements) {
+                    plans.add(explain(connection, statement));
+                }
+                return plans;
+            });
+        } finally {
+            em.close();
+        }
+    }
+
+    private Plan explain(Connection connection, SqlCapture.Statement statement) {
+        try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+            int parameters = ps.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                ps.setObject(i, null);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1));
+                }
+            }
+            return new Plan(statement.label(), statement.sql(), plan.toString(), scannedTables(plan));
+        } catch (SQLException e) {
+            throw new PersistenceException("EXPLAIN failed for: " + statement.sql(), e);
+        }
+    }
+
+    private static List<String> scannedTables(CharSequence plan) {
+        Set<String> tables = new LinkedHashSet<>();
+        Matcher matcher = TABLE_SCAN.matcher(plan);
+        while (matcher.find()) {
+            String table = matcher.group(1);
+            tables.add(table.substring(table.lastIndexOf('.') + 1));
+        }
+        return List.copyOf(tables);
+    }
+
+    /** The plan of one statement and the tables it scans. */
+    public record Plan(String label, String sql, String plan, List<String> scannedTables) {
+        public boolean hasTableScan() {
+            return !scannedTables.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return (hasTableScan() ? "SCAN " + scannedTables : "INDEX") + ": " + label;
+        }
+    }
+}
@@ -1,13 +1,26 @@
 package com.example.repository;
 
-import com.example.exception.InvalidEntityException;
 import com.example.exception.InvalidFieldException;
 import com.example.exception.InvalidPaginationException;
+import org.hibernate.SessionFactory;
 
-import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
-import javax.persistence.Entity;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Builder Pattern class for creating dynamic queries.
@@ -20,58 +33,222 @@ import java.util.*;
  *     .orderBy("salary", true)   // ASC
  *     .page(1, 10)               // pagination
  *     .getResult();
+ *
+ * Range, IN, null and OR conditions, sorted on several columns:
+ * repo.findBy(Employee.class)
+ *     .between("salary", 5000.0, 7000.0)
+ *     .in("id", List.of(1L, 2L, 3L))
+ *     .or(c -> c.where("department.name", "IT").isNull("department"))
+ *     .orderBy("salary", false)
+ *     .orderByIgnoreCase("lastName", true)
+ *     .getResult();
+ *
+ * Loading associations up front instead of one query per row:
+ * repo.findBy(Department.class)
+ *     .fetch("employees")
+ *     .getResult();
+ *
+ * Bulk update and delete, one statement without loading entities:
+ * int updated = repo.findBy(Employee.class)
+ *     .like("email", "%@mail.com")
+ *     .update(Map.of("salary", 5000.0));
+ * int deleted = repo.findBy(Employee.class)
+ *     .like("email", "%@mail.com")
+ *     .delete();
+ *
+ * Read-only report query with hints:
+ * repo.findBy(Employee.class)
+ *     .readOnly()
+ *     .timeout(5000)
+ *     .hint(QueryHints.FETCH_SIZE, 1000)
+ *     .getResult();
+ *
+ * Projections, returning only the selected columns:
+ * List<EmployeeRow> rows = repo.findBy(Employee.class)
+ *     .like("lastName", "Y%")
+ *     .select("firstName", "lastName", "salary")
+ *     .as(EmployeeRow.class);  // record EmployeeRow(String firstName, String lastName, Double salary)
+ *
+ * Aggregation in the database instead of in memory:
+ * Double average = repo.findBy(Employee.class).avg("salary");
+ * Map<String, Double> averageByDepartment = repo.findBy(Employee.class)
+ *     .groupBy("department.name", String.class)
+ *     .having(Aggregate.COUNT, null, Comparison.GE, 5L)
+ *     .avg("salary");
+ *
+ * Keyset pagination, constant cost at any depth:
+ * KeysetPage<Employee> first = repo.findBy(Employee.class)
+ *     .orderBy("salary", true)
+ *     .getKeysetPage(20);
+ * KeysetPage<Employee> second = repo.findBy(Employee.class)
+ *     .orderBy("salary", true)
+ *     .after(first.getNextCursor())
+ *     .getKeysetPage(20);
  */
 public class FindBuilder<T> {
+    /** Rows between two progress reports of a parallel scan partition. */
+    public static final int PROGRESS_INTERVAL = 10_000;
+
     private final EntityManager em;
     private final Class<T> entityClass;
+    private final EntityMetadata<T> metadata;
+    private final QueryPlanCache queryCache;
 
-    // Equality conditions
-    private final Map<String, Object> equalsConditions = new LinkedHashMap<>();
-    // LIKE conditions
-    private final Map<String, String> likeConditions = new LinkedHashMap<>();
+    // Conditions, combined with AND
+    private final Conditions conditions;
 
-    // Sorting
-    private String orderField;
-    private boolean ascending = true;
+    // Sorting, in order of precedence
+    private final List<Order> orders = new ArrayList<>();
 
     // Pagination
     private int page = -1;
     private int pageSize = -1;
 
+    // Keyset pagination cursors
+    private String afterCursor;
+    private String beforeCursor;
+
+    // Maximum age of a cached count, or -1 to always run the count query
+    private long countMaxAgeNanos = -1;
+
+    // Rows fetched per round trip when streaming
+    private int fetchSize = ResultStreams.DEFAULT_FETCH_SIZE;
+
+    // Associations loaded with a join fetch, and the entity graph, for entity results only
+    private final Set<String> fetches = new LinkedHashSet<>();
+    private EntityGraph<?> entityGraph;
+
+    // Metrics to record executions in, or null when not instrumented
+    private RepositoryMetrics metrics;
+    private Supplier<RepositoryMetrics.SessionCounters> session;
+
+    // Query hints, applied to every query this builder runs
+    private final Map<String, Object> hints = new LinkedHashMap<>();
+
     public FindBuilder(EntityManager em, Class<T> entityClass) {
+        this(em, entityClass, QueryPlanCache.forFactory(em.getEntityManagerFactory()));
+    }
+
+    public FindBuilder(EntityManager em, Class<T> entityClass, QueryPlanCache queryCache) {
         this.em = em;
         this.entityClass = entityClass;
-        validateEntityClass(entityClass);
+        this.queryCache = queryCache;
+        this.metadata = EntityMetadata.forFactory(em.getEntityManagerFactory()).get(entityClass);
+        this.conditions = new Conditions(metadata);
     }
 
     /** Adds an equality condition (field = value). */
     public FindBuilder<T> where(String field, Object value) {
-        if (field == null || field.trim().isEmpty()) {
-            throw new InvalidFieldException("Field name cannot be null or empty.");
-        }
-        equalsConditions.put(field, value);
+        conditions.where(field, value);
         return this;
     }
 
     /** Adds a LIKE condition (field like pattern). */
     public FindBuilder<T> like(String field, String pattern) {
-        if (field == null || field.trim().isEmpty()) {
-            throw new InvalidFieldException("Field name cannot be null or empty.");
-        }
-        if (pattern == null) {
-            throw new InvalidFieldException("Pattern cannot be null.");
-        }
-        likeConditions.put(field, pattern);
+        conditions.like(field, pattern);
+        return this;
+    }
+
+    /** Adds a condition field &gt; value. */
+    public FindBuilder<T> gt(String field, Object value) {
+        conditions.gt(field, value);
+        return this;
+    }
+
+    /** Adds a condition field &gt;= value. */
+    public FindBuilder<T> ge(String field, Object value) {
+        conditions.ge(field, value);
+        return this;
+    }
+
+    /** Adds a condition field &lt; value. */
+    public FindBuilder<T> lt(String field, Object value) {
+        conditions.lt(field, value);
+        return this;
+    }
+
+    /** Adds a condition field &lt;= value. */
+    public FindBuilder<T> le(String field, Object value) {
+        conditions.le(field, value);
         return this;
     }
 
-    /** Adds an ORDER BY clause. */
+    /** Adds a condition field between low and high, both inclusive. */
+    public FindBuilder<T> between(String field, Object low, Object high) {
+        conditions.between(field, low, high);
+        return this;
+    }
+
+    /** Adds a condition field in (values). */
+    public FindBuilder<T> in(String field, Collection<?> values) {
+        conditions.in(field, values);
+        return this;
+    }
+
+    /** Adds a condition field is null. */
+    public FindBuilder<T> isNull(String field) {
+        conditions.isNull(field);
+        return this;
+    }
+
+    /** Adds a condition field is not null. */
+    public FindBuilder<T> isNotNull(String field) {
+        conditions.isNotNull(field);
+        return this;
+    }
+
+    /** Adds a group of conditions of which at least one must hold. */
+    public FindBuilder<T> or(Consumer<Conditions> group) {
+        conditions.or(group);
+        return this;
+    }
+
+    /**
+     * Adds an ORDER BY on the column as is, so that an index on it can be used.
+     * Calling it again adds a further sort column.
+     */
     public FindBuilder<T> orderBy(String field, boolean ascending) {
-        if (field == null || field.trim().isEmpty()) {
-            throw new InvalidFieldException("Order field cannot be null or empty.");
+        metadata.checkComparable(requireField(field, "Order field cannot be null or empty."));
+        orders.add(new Order(field, ascending, false));
+        return this;
+    }
+
+    /**
+     * Adds a case-insensitive ORDER BY on lower(field). Only for text columns;
+     * it cannot use a plain index on the column.
+     */
+    public FindBuilder<T> orderByIgnoreCase(String field, boolean ascending) {
+        metadata.checkText(requireField(field, "Order field cannot be null or empty."));
+        orders.add(new Order(field, ascending, true));
+        return this;
+    }
+
+    /**
+     * Loads the given association or element collection (e.g. "employees", "employeeCarMap"
+     * or "department") in the same query
+     * with a left join fetch. Applies to getResult(), stream() and getPage().
+     * Avoid fetching collections together with pagination, since the rows are then
+     * paged in memory; the global batch fetch size covers that case instead.
+     */
+    public FindBuilder<T> fetch(String association) {
+        if (association == null || association.trim().isEmpty()) {
+            throw new InvalidFieldException("Association name cannot be null or empty.");
+        }
+        metadata.checkAssociation(association);
+        fetches.add(association);
+        return this;
+    }
+
+    /**
+     * Uses the named entity graph (e.g. "Department.employees") as fetch graph:
+     * its attributes are loaded eagerly, everything else lazily.
+     * Applies to getResult(), stream() and getPage().
+     */
+    public FindBuilder<T> withEntityGraph(String graphName) {
+        if (graphName == null || graphName.trim().isEmpty()) {
+            throw new InvalidFieldException("Entity graph name cannot be null or empty.");
         }
-        this.orderField = field;
-        this.ascending = ascending;
+        this.entityGraph = em.getEntityGraph(graphName);
         return this;
     }
 
@@ -85,60 +262,1010 @@ public class FindBuilder<T> {
         return this;
     }
 
+    /** Continues keyset pagination after the given cursor. */
+    public FindBuilder<T> after(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            throw new InvalidPaginationException("Cursor cannot be null or empty.");
+        }
+        this.afterCursor = cursor;
+        this.beforeCursor = null;
+        return this;
+    }
+
+    /** Continues keyset pagination backwards, before the given cursor. */
+    public FindBuilder<T> before(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            throw new InvalidPaginationException("Cursor cannot be null or empty.");
+        }
+        this.beforeCursor = cursor;
+        this.afterCursor = null;
+        return this;
+    }
+
+    /** Lets {@link #getPage()} reuse a total count of the same query up to the given age. */
+    public FindBuilder<T> cachedCount(Duration maxAge) {
+        if (maxAge == null || maxAge.isNegative()) {
+            throw new IllegalArgumentException("Max age cannot be null or negative.");
+        }
+        this.countMaxAgeNanos = maxAge.toNanos();
+        return this;
+    }
+
+    /** Sets the JDBC fetch size, used for list results and by {@link #stream()}. */
+    public FindBuilder<T> fetchSize(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("Fetch size must be greater than 0.");
+        }
+        this.fetchSize = fetchSize;
+        hints.put(QueryHints.FETCH_SIZE, fetchSize);
+        return this;
+    }
+
+    /**
+     * Runs the query read-only: entities are loaded without a dirty-checking snapshot
+     * and pending changes are not auto-flushed before the query.
+     */
+    public FindBuilder<T> readOnly() {
+        hints.put(QueryHints.READ_ONLY, true);
+        hints.put(QueryHints.FLUSH_MODE, QueryHints.FLUSH_COMMIT);
+        return this;
+    }
+
+    /** Sets the query timeout in milliseconds. */
+    public FindBuilder<T> timeout(int timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Timeout must be greater than 0.");
+        }
+        hints.put(QueryHints.TIMEOUT, timeoutMillis);
+        return this;
+    }
+
+    /** Stores the result in the query cache. */
+    public FindBuilder<T> cacheable() {
+        hints.put(QueryHints.CACHEABLE, true);
+        return this;
+    }
+
+    /** Stores the result in the given query cache region, which should be configured in ehcache.xml. */
+    public FindBuilder<T> cacheable(String region) {
+        if (region == null || region.trim().isEmpty()) {
+            throw new IllegalArgumentException("Cache region cannot be null or empty.");
+        }
+        hints.put(QueryHints.CACHEABLE, true);
+        hints.put(QueryHints.CACHE_REGION, region);
+        return this;
+    }
+
+    /** Adds a query hint, e.g. one of {@link QueryHints}. A null value removes the hint. */
+    public FindBuilder<T> hint(String name, Object value) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Hint name cannot be null or empty.");
+        }
+        if (value == null) {
+            hints.remove(name);
+        } else {
+            hints.put(name, value);
+        }
+        return this;
+    }
+
     /** Builds and executes the query, returning the result list. */
     public List<T> getResult() {
-        String entityName = entityClass.getSimpleName();
-        StringBuilder ql = new StringBuilder("from " + entityName + " e");
+        RepositoryMetrics.Sample start = startTimer();
+        List<T> result = createQuery().getResultList();
+        record("find", start, result.size());
+        return result;
+    }
+
+    /**
+     * Selects only the given fields instead of whole entities.
+     * Conditions, sorting and pagination of this builder still apply.
+     */
+    public Projection select(String... fields) {
+        if (fields == null || fields.length == 0) {
+            throw new InvalidFieldException("At least one field must be selected.");
+        }
+        for (String field : fields) {
+            if (field == null || field.trim().isEmpty()) {
+                throw new InvalidFieldException("Field name cannot be null or empty.");
+            }
+            metadata.attribute(field);
+        }
+        return new Projection(fields.clone());
+    }
+
+    /** Counts the rows matching the conditions. Sorting and pagination are ignored. */
+    public long count() {
+        RepositoryMetrics.Sample start = startTimer();
+        TypedQuery<Long> query = queryCache.createQuery(em, shapeKey("count"), Long.class,
+                () -> "select count(e) from " + metadata.entityName() + " e" + whereSuffix());
+        setParameters(query);
+        applyHints(query);
+        long count = query.getSingleResult();
+        record("count", start, 1);
+        return count;
+    }
+
+    /** Returns true if at least one row matches the conditions, without counting them all. */
+    public boolean exists() {
+        RepositoryMetrics.Sample start = startTimer();
+        String idField = metadata.idAttributeName();
+        TypedQuery<Object> query = queryCache.createQuery(em, shapeKey("exists"), Object.class,
+                () -> "select e." + idField + " from " + metadata.entityName() + " e" + whereSuffix());
+        setParameters(query);
+        applyHints(query);
+        query.setMaxResults(1);
+        boolean exists = !query.getResultList().isEmpty();
+        record("exists", start, exists ? 1 : 0);
+        return exists;
+    }
+
+    /** Returns the sum of the field over the matching rows: Long for integral, Double for floating point fields; null if none match. */
+    public Number sum(String field) {
+        metadata.checkNumeric(requireField(field, "Field name cannot be null or empty."));
+        return (Number) aggregate(Aggregate.SUM, field);
+    }
+
+    /** Returns the average of the field over the matching rows, or null if none match. */
+    public Double avg(String field) {
+        metadata.checkNumeric(requireField(field, "Field name cannot be null or empty."));
+        Number average = (Number) aggregate(Aggregate.AVG, field);
+        return average == null ? null : average.doubleValue();
+    }
+
+    /** Returns the smallest value of the field over the matching rows, or null if none match. */
+    public <R> R min(String field, Class<R> type) {
+        checkComparableResult(field, type);
+        return type.cast(aggregate(Aggregate.MIN, field));
+    }
+
+    /** Returns the largest value of the field over the matching rows, or null if none match. */
+    public <R> R max(String field, Class<R> type) {
+        checkComparableResult(field, type);
+        return type.cast(aggregate(Aggregate.MAX, field));
+    }
+
+    /**
+     * Groups the matching rows by the field, e.g. "department.name"; aggregates of the
+     * returned grouping are computed per group in the database. Sorting and pagination
+     * of this builder do not apply; groups are returned ordered by key.
+     */
+    public <K> Grouping<K> groupBy(String field, Class<K> keyType) {
+        metadata.checkResultType(requireField(field, "Group field cannot be null or empty."), keyType);
+        return new Grouping<>(field, keyType);
+    }
+
+    /**
+     * Executes the query for the page set with {@link #page(int, int)} and returns it with the total count.
+     * The count query is skipped when the page is not full, since the total is then known,
+     * and is served from the count cache when {@link #cachedCount(Duration)} was set.
+     */
+    public Page<T> getPage() {
+        if (page <= 0 || pageSize <= 0) {
+            throw new InvalidPaginationException("Page must be set before calling getPage().");
+        }
+        List<T> content = getResult();
+        long offset = (long) (page - 1) * pageSize;
+        long total;
+        if (content.size() < pageSize && (!content.isEmpty() || page == 1)) {
+            total = offset + content.size();
+        } else if (countMaxAgeNanos >= 0) {
+            CountCache.Key key = new CountCache.Key(shapeKey("count"), parameterValues());
+            total = CountCache.forFactory(em.getEntityManagerFactory()).get(key, countMaxAgeNanos, this::count);
+        } else {
+            total = count();
+        }
+        return new Page<>(content, page, pageSize, total);
+    }
+
+    /**
+     * Sets the given fields on every row matching the conditions with a single JPQL
+     * UPDATE, without loading the entities. Must run inside a transaction.
+     * Entities already managed by the EntityManager are not refreshed.
+     *
+     * @return the number of updated rows
+     */
+    public int update(Map<String, Object> changes) {
+        if (changes == null || changes.isEmpty()) {
+            throw new InvalidFieldException("Changes cannot be null or empty.");
+        }
+        changes.forEach((field, value) -> {
+            if (field == null || field.trim().isEmpty()) {
+                throw new InvalidFieldException("Field name cannot be null or empty.");
+            }
+            metadata.checkUpdatable(field, value);
+        });
+        RepositoryMetrics.Sample start = startTimer();
+        List<String> fields = new ArrayList<>(changes.keySet());
+        Query query = em.createQuery(queryCache.jpql(shapeKey("update:" + String.join(",", fields)), () -> {
+            StringJoiner set = new StringJoiner(", ");
+            fields.forEach(field -> set.add("e." + field + " = :" + setParameterName(field)));
+            // "versioned" also increments the @Version column, so concurrent optimistic writers see the change
+            String update = metadata.isVersioned() ? "update versioned " : "update ";
+            return update + metadata.entityName() + " e set " + set + whereSuffix();
+        }));
+        fields.forEach(field -> query.setParameter(setParameterName(field), changes.get(field)));
+        int updated = executeBulk(query);
+        record("update", start, updated);
+        return updated;
+    }
+
+    /**
+     * Deletes every row matching the conditions with a single JPQL DELETE, without
+     * loading the entities. Cascades and orphan removal do not apply, so child rows
+     * must be removed first. Must run inside a transaction.
+     *
+     * @return the number of deleted rows
+     */
+    public int delete() {
+        RepositoryMetrics.Sample start = startTimer();
+        Query query = em.createQuery(queryCache.jpql(shapeKey("delete"),
+                () -> "delete from " + metadata.entityName() + " e" + whereSuffix()));
+        int deleted = executeBulk(query);
+        record("delete", start, deleted);
+        return deleted;
+    }
+
+    /**
+     * Builds and executes the query, returning a stream backed by a forward-only cursor.
+     * Entities are detached after they have been processed; close the stream when done.
+     */
+    public Stream<T> stream() {
+        return ResultStreams.stream(em, createQuery(), fetchSize);
+    }
+
+    /** Same as {@link #parallelScan(int, Consumer, Consumer)} without progress reports. */
+    public ScanReport parallelScan(int partitions, Consumer<? super T> action) {
+        return parallelScan(partitions, action, null);
+    }
+
+    /**
+     * Processes every matching row on several threads. The id range of the matching
+     * rows is split into equal ranges, each streamed on its own virtual thread with its
+     * own EntityManager, so the action must be thread-safe. Entities are detached after
+     * the action. Use at most as many partitions as the connection pool has connections.
+     * Progress is reported every {@value #PROGRESS_INTERVAL} rows and when a partition is done.
+     * If the action fails, the other partitions stop and the exception is rethrown.
+     * Requires a numeric id.
+     */
+    public ScanReport parallelScan(int partitions, Consumer<? super T> action, Consumer<ScanReport.Progress> progress) {
+        if (partitions <= 0) {
+            throw new InvalidPaginationException("Partition count must be greater than 0.");
+        }
+        if (action == null) {
+            throw new InvalidFieldException("Scan action cannot be null.");
+        }
+        String idField = metadata.idAttributeName();
+        Class<?> idType = metadata.attribute(idField).javaType();
+        if (idType != Long.class && idType != Integer.class) {
+            throw new InvalidFieldException(metadata.entityName() + " has no Long or Integer id to partition on.");
+        }
+        long start = System.nanoTime();
+        Number min = (Number) aggregate(Aggregate.MIN, idField);
+        Number max = (Number) aggregate(Aggregate.MAX, idField);
+        if (min == null) {
+            return new ScanReport(List.of(), 0, System.nanoTime() - start);
+        }
+
+        long low = min.longValue();
+        long span = max.longValue() - low + 1;
+        int count = (int) Math.min(partitions, span);
+        EntityManagerFactory emf = em.getEntityManagerFactory();
+        AtomicLong totalRows = new AtomicLong();
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Future<ScanReport.Partition>> futures = new ArrayList<>(count);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                long from = low + span / count * i + Math.min(i, span % count);
+                long to = low + span / count * (i + 1) + Math.min(i + 1, span % count) - 1;
+                futures.add(executor.submit(() -> scanPartition(emf, index, idField, toId(idType, from), toId(idType, to),
+                        action, progress, totalRows, failed)));
+            }
+        }
+
+        List<ScanReport.Partition> results = new ArrayList<>(count);
+        for (Future<ScanReport.Partition> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException("Parallel scan failed.", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted during parallel scan.", e);
+            }
+        }
+        return new ScanReport(results, totalRows.get(), System.nanoTime() - start);
+    }
+
+    private ScanReport.Partition scanPartition(EntityManagerFactory emf, int index, String idField, Object from, Object to,
+                                               Consumer<? super T> action, Consumer<ScanReport.Progress> progress,
+                                               AtomicLong totalRows, AtomicBoolean failed) {
+        long start = System.nanoTime();
+        long rows = 0;
+        EntityManager partitionEm = emf.createEntityManager();
+        try (Stream<T> stream = copyFor(partitionEm).between(idField, from, to).stream()) {
+            Iterator<T> iterator = stream.iterator();
+            while (!failed.get() && iterator.hasNext()) {
+                action.accept(iterator.next());
+                long total = totalRows.incrementAndGet();
+                if (++rows % PROGRESS_INTERVAL == 0 && progress != null) {
+                    progress.accept(new ScanReport.Progress(index, rows, total, false));
+                }
+            }
+        } catch (RuntimeException e) {
+            failed.set(true);
+            throw e;
+        } finally {
+            partitionEm.close();
+        }
+        if (progress != null) {
+            progress.accept(new ScanReport.Progress(index, rows, totalRows.get(), true));
+        }
+        return new ScanReport.Partition(index, from, to, rows, System.nanoTime() - start);
+    }
+
+    /** Returns a builder with the same conditions, sorting and hints on another EntityManager. */
+    private FindBuilder<T> copyFor(EntityManager other) {
+        FindBuilder<T> copy = new FindBuilder<>(other, entityClass, queryCache);
+        copy.conditions.items.addAll(conditions.items);
+        copy.orders.addAll(orders);
+        copy.fetches.addAll(fetches);
+        copy.hints.putAll(hints);
+        copy.fetchSize = fetchSize;
+        copy.entityGraph = entityGraph;
+        copy.metrics = metrics;
+        copy.session = RepositoryMetrics.sessionCounters(other);
+        return copy;
+    }
+
+    private static Object toId(Class<?> idType, long value) {
+        return idType == Integer.class ? (Object) Math.toIntExact(value) : (Object) value;
+    }
+
+    /**
+     * Executes the query with keyset pagination, ordering by the sort fields
+     * (compared as is, also for orderByIgnoreCase) and the id as a tiebreaker.
+     * Nulls of a nullable sort field are ordered as the greatest value: last when
+     * ascending, first when descending.
+     * Starts from the first page unless {@link #after} or {@link #before} was called.
+     */
+    public KeysetPage<T> getKeysetPage(int size) {
+        if (size <= 0) {
+            throw new InvalidPaginationException("Page size must be greater than 0.");
+        }
+        RepositoryMetrics.Sample start = startTimer();
+        String idField = metadata.idAttributeName();
+        boolean backward = beforeCursor != null;
+        KeysetCursor cursor = afterCursor != null ? KeysetCursor.decode(afterCursor)
+                : backward ? KeysetCursor.decode(beforeCursor) : null;
+        List<Object> keys = cursor == null ? List.of() : cursor.values();
+        if (cursor != null && (keys.size() != orders.size() + 1 || keys.get(keys.size() - 1) == null)) {
+            throw new InvalidPaginationException("Cursor does not match the sort order of this query.");
+        }
+        // Null cursor values are compared with "is null", so they are part of the query shape
+        StringBuilder mode = new StringBuilder(cursor == null ? "first" : backward ? "before:" : "after:");
+        keys.forEach(key -> mode.append(key == null ? 'n' : 'v'));
+
+        TypedQuery<Object[]> query = queryCache.createQuery(em, shapeKey("keyset:" + mode), Object[].class,
+                () -> buildKeysetQuery(idField, keys, backward));
+        setParameters(query);
+        applyHints(query);
+        for (int i = 0; i < keys.size(); i++) {
+            if (keys.get(i) != null) {
+                query.setParameter("ks" + i, keys.get(i));
+            }
+        }
+        query.setMaxResults(size + 1);
+
+        List<Object[]> rows = query.getResultList();
+        boolean more = rows.size() > size;
+        List<Object[]> pageRows = new ArrayList<>(more ? rows.subList(0, size) : rows);
+        if (backward) {
+            Collections.reverse(pageRows);
+        }
+
+        List<T> content = new ArrayList<>(pageRows.size());
+        pageRows.forEach(row -> content.add(entityClass.cast(row[0])));
+
+        String next = null;
+        String previous = null;
+        if (!pageRows.isEmpty()) {
+            String first = cursorOf(pageRows.get(0));
+            String last = cursorOf(pageRows.get(pageRows.size() - 1));
+            // Going backwards there is always a next page: the one we came from
+            next = backward || more ? last : null;
+            previous = backward ? (more ? first : null) : (cursor != null ? first : null);
+        }
+        record("keyset:" + mode, start, content.size());
+        return new KeysetPage<>(content, next, previous);
+    }
+
+    /**
+     * Builds the keyset query; rows are (entity, sort values..., id).
+     * The seek condition is the lexicographic comparison of the key columns with the
+     * cursor values {@code keys} (empty for the first page), treating null as the
+     * greatest value of a nullable column.
+     */
+    private String buildKeysetQuery(String idField, List<Object> keys, boolean backward) {
+        List<String> columns = new ArrayList<>();
+        List<Boolean> ascendings = new ArrayList<>();
+        List<Boolean> nullables = new ArrayList<>();
+        orders.forEach(order -> {
+            columns.add("e." + order.field());
+            ascendings.add(order.ascending());
+            nullables.add(metadata.attribute(order.field()).optional());
+        });
+        columns.add("e." + idField);
+        ascendings.add(orders.isEmpty() || orders.get(orders.size() - 1).ascending());
+        nullables.add(false);
+
+        StringBuilder ql = new StringBuilder("select e");
+        columns.forEach(column -> ql.append(", ").append(column));
+        ql.append(" from ").append(metadata.entityName()).append(" e");
 
+        List<String> parts = new ArrayList<>();
         String whereClause = buildWhereClause();
         if (!whereClause.isEmpty()) {
-            ql.append(" where ").append(whereClause);
+            parts.add(whereClause);
+        }
+        if (!keys.isEmpty()) {
+            StringJoiner seek = new StringJoiner(" or ", "(", ")");
+            for (int i = 0; i < columns.size(); i++) {
+                String beyond = seekBeyond(columns.get(i), i, keys.get(i), ascendings.get(i) != backward, nullables.get(i));
+                if (beyond == null) {
+                    continue;
+                }
+                if (i == 0) {
+                    // No extra parentheses: nested ones make the HQL parser backtrack for seconds
+                    seek.add(beyond);
+                    continue;
+                }
+                StringJoiner term = new StringJoiner(" and ", "(", ")");
+                for (int j = 0; j < i; j++) {
+                    term.add(columns.get(j) + (keys.get(j) == null ? " is null" : " = :ks" + j));
+                }
+                term.add(beyond);
+                seek.add(term.toString());
+            }
+            parts.add(seek.toString());
+        }
+        if (!parts.isEmpty()) {
+            ql.append(" where ").append(String.join(" and ", parts));
         }
 
-        if (orderField != null) {
-            ql.append(" order by lower(e.").append(orderField).append(")")
-                    .append(ascending ? " asc" : " desc");
+        StringJoiner orderBy = new StringJoiner(", ", " order by ", "");
+        for (int i = 0; i < columns.size(); i++) {
+            boolean increasing = ascendings.get(i) != backward;
+            String nulls = !nullables.get(i) ? "" : increasing ? " nulls last" : " nulls first";
+            orderBy.add(columns.get(i) + (increasing ? " asc" : " desc") + nulls);
         }
+        return ql.append(orderBy).toString();
+    }
 
-        TypedQuery<T> query = em.createQuery(ql.toString(), entityClass);
+    /**
+     * Condition for rows whose value of the column comes after the cursor value {@code :ks<i>}
+     * in the given direction, or null if no row can (nothing comes after null when increasing).
+     */
+    private static String seekBeyond(String column, int i, Object key, boolean increasing, boolean nullable) {
+        if (key == null) {
+            return increasing ? null : column + " is not null";
+        }
+        if (increasing) {
+            return nullable ? "(" + column + " > :ks" + i + " or " + column + " is null)" : column + " > :ks" + i;
+        }
+        return column + " < :ks" + i;
+    }
+
+    private String cursorOf(Object[] row) {
+        return new KeysetCursor(Arrays.asList(row).subList(1, row.length)).encode();
+    }
+
+    /** Creates the query with parameters and pagination applied. */
+    private TypedQuery<T> createQuery() {
+        TypedQuery<T> query = queryCache.createQuery(em, shapeKey("find"), entityClass, this::buildQuery);
+        setParameters(query);
+        applyHints(query);
+        if (entityGraph != null) {
+            query.setHint(QueryHints.FETCH_GRAPH, entityGraph);
+        }
+        setPagination(query);
+        return query;
+    }
+
+    /**
+     * Executes a bulk statement. Hibernate invalidates the entity's own cache region and
+     * dependent query results; collection regions may still hold ids of removed or changed
+     * rows, so they are evicted here, together with cached counts.
+     */
+    private int executeBulk(Query query) {
         setParameters(query);
+        // Read hints do not apply to DML; only the timeout is passed on
+        Object timeout = hints.get(QueryHints.TIMEOUT);
+        if (timeout != null) {
+            query.setHint(QueryHints.TIMEOUT, timeout);
+        }
+        int affected = query.executeUpdate();
+        if (affected > 0) {
+            EntityManagerFactory emf = em.getEntityManagerFactory();
+            emf.unwrap(SessionFactory.class).getCache().evictCollectionData();
+            CountCache.forFactory(emf).clear();
+        }
+        return affected;
+    }
 
+    private static String setParameterName(String field) {
+        return "set_" + field.replace('.', '_');
+    }
+
+    /** Returns " where ..." for the current conditions, or an empty string if there are none. */
+    private String whereSuffix() {
+        String whereClause = buildWhereClause();
+        return whereClause.isEmpty() ? "" : " where " + whereClause;
+    }
+
+    private Object aggregate(Aggregate function, String field) {
+        RepositoryMetrics.Sample start = startTimer();
+        String operation = function.jpql + ":" + field;
+        TypedQuery<Object> query = queryCache.createQuery(em, shapeKey(operation), Object.class,
+                () -> "select " + function.of(field) + " from " + metadata.entityName() + " e" + whereSuffix());
+        setParameters(query);
+        applyHints(query);
+        Object result = query.getSingleResult();
+        record(operation, start, 1);
+        return result;
+    }
+
+    private void checkComparableResult(String field, Class<?> type) {
+        metadata.checkComparable(requireField(field, "Field name cannot be null or empty."));
+        metadata.checkResultType(field, type);
+    }
+
+    /** Builds the JPQL for the current conditions and sorting. */
+    private String buildQuery() {
+        StringBuilder ql = new StringBuilder("from ").append(metadata.entityName()).append(" e");
+        fetches.forEach(association -> ql.append(" left join fetch e.").append(association));
+        return ql.append(whereSuffix()).append(orderSuffix()).toString();
+    }
+
+    /** Returns " order by ..." for the current sorting, or an empty string if unsorted. */
+    private String orderSuffix() {
+        if (orders.isEmpty()) {
+            return "";
+        }
+        StringJoiner orderBy = new StringJoiner(", ", " order by ", "");
+        orders.forEach(order -> orderBy.add(order.toJpql()));
+        return orderBy.toString();
+    }
+
+    /** Applies pagination to the query, if set. */
+    private void setPagination(Query query) {
         if (page > 0 && pageSize > 0) {
             query.setFirstResult((page - 1) * pageSize);
             query.setMaxResults(pageSize);
         }
+    }
 
-        return query.getResultList();
+    /** Describes the query shape for the plan cache; parameter values are not part of it. */
+    private QueryPlanCache.Key shapeKey(String operation) {
+        List<String> fields = new ArrayList<>(conditions.size() + fetches.size());
+        fetches.forEach(association -> fields.add("fetch:" + association));
+        conditions.forEach(condition -> fields.add(condition.shape()));
+        String sort = null;
+        if (!orders.isEmpty()) {
+            StringJoiner joiner = new StringJoiner(", ");
+            orders.forEach(order -> joiner.add(order.toJpql()));
+            sort = joiner.toString();
+        }
+        return new QueryPlanCache.Key(entityClass, operation, fields, sort, page > 0);
     }
 
-    /** Builds the WHERE clause from equals and like conditions. */
+    /**
+     * Builds the WHERE clause from the conditions. Parameters are named p0, p1, ...
+     * in the order in which {@link #setParameters} binds them.
+     */
     private String buildWhereClause() {
-        List<String> parts = new ArrayList<>();
-
-        equalsConditions.keySet().forEach(field ->
-                parts.add("e." + field + " = :" + field)
-        );
+        int[] next = {0};
+        StringJoiner parts = new StringJoiner(" and ");
+        conditions.forEach(condition -> parts.add(condition.toJpql(next)));
+        return parts.toString();
+    }
 
-        likeConditions.keySet().forEach(field ->
-                parts.add("e." + field + " like :" + field)
-        );
+    /** Returns the parameter values in binding order. */
+    private List<Object> parameterValues() {
+        List<Object> values = new ArrayList<>();
+        conditions.forEach(condition -> condition.collectValues(values));
+        return values;
+    }
 
-        return String.join(" and ", parts);
+    private void applyHints(Query query) {
+        hints.forEach(query::setHint);
     }
 
     /** Sets parameters on the query. */
-    private void setParameters(TypedQuery<T> query) {
-        equalsConditions.forEach(query::setParameter);
-        likeConditions.forEach(query::setParameter);
+    private void setParameters(Query query) {
+        List<Object> values = parameterValues();
+        for (int i = 0; i < values.size(); i++) {
+            query.setParameter("p" + i, values.get(i));
+        }
+    }
+
+    private static String requireField(String field, String message) {
+        if (field == null || field.trim().isEmpty()) {
+            throw new InvalidFieldException(message);
+        }
+        return field;
+    }
+
+    /**
+     * Conditions of a query or of an OR group. Within {@link FindBuilder} they are
+     * combined with AND, within {@link FindBuilder#or(Consumer)} with OR.
+     */
+    public static class Conditions {
+        private final EntityMetadata<?> metadata;
+        private final List<Condition> items = new ArrayList<>();
+
+        Conditions(EntityMetadata<?> metadata) {
+            this.metadata = metadata;
+        }
+
+        /** Adds an equality condition (field = value). */
+        public Conditions where(String field, Object value) {
+            return add(field, Operator.EQ, value);
+        }
+
+        /** Adds a LIKE condition (field like pattern). */
+        public Conditions like(String field, String pattern) {
+            if (pattern == null) {
+                throw new InvalidFieldException("Pattern cannot be null.");
+            }
+            return add(field, Operator.LIKE, pattern);
+        }
+
+        public Conditions gt(String field, Object value) {
+            return add(field, Operator.GT, requireValue(value));
+        }
+
+        public Conditions ge(String field, Object value) {
+            return add(field, Operator.GE, requireValue(value));
+        }
+
+        public Conditions lt(String field, Object value) {
+            return add(field, Operator.LT, requireValue(value));
+        }
+
+        public Conditions le(String field, Object value) {
+            return add(field, Operator.LE, requireValue(value));
+        }
+
+        public Conditions between(String field, Object low, Object high) {
+            return add(field, Operator.BETWEEN, List.of(requireValue(low), requireValue(high)));
+        }
+
+        public Conditions in(String field, Collection<?> values) {
+            if (values == null || values.isEmpty()) {
+                throw new InvalidFieldException("IN values cannot be null or empty.");
+            }
+            return add(field, Operator.IN, List.copyOf(values));
+        }
+
+        public Conditions isNull(String field) {
+            return add(field, Operator.IS_NULL, null);
+        }
+
+        public Conditions isNotNull(String field) {
+            return add(field, Operator.IS_NOT_NULL, null);
+        }
+
+        /** Adds a nested group of which at least one condition must hold. */
+        public Conditions or(Consumer<Conditions> group) {
+            if (group == null) {
+                throw new InvalidFieldException("Condition group cannot be null.");
+            }
+            Conditions members = new Conditions(metadata);
+            group.accept(members);
+            if (members.items.isEmpty()) {
+                throw new InvalidFieldException("Condition group cannot be empty.");
+            }
+            items.add(new Condition(null, Operator.OR, null, List.copyOf(members.items)));
+            return this;
+        }
+
+        int size() {
+            return items.size();
+        }
+
+        void forEach(Consumer<Condition> action) {
+            items.forEach(action);
+        }
+
+        private Conditions add(String field, Operator operator, Object value) {
+            requireField(field, "Field name cannot be null or empty.");
+            switch (operator) {
+                case LIKE -> metadata.checkText(field);
+                case IS_NULL, IS_NOT_NULL -> metadata.attribute(field);
+                case IN -> ((List<?>) value).forEach(element -> metadata.checkValue(field, element));
+                case BETWEEN -> {
+                    metadata.checkComparable(field);
+                    ((List<?>) value).forEach(bound -> metadata.checkValue(field, bound));
+                }
+                case GT, GE, LT, LE -> {
+                    metadata.checkComparable(field);
+                    metadata.checkValue(field, value);
+                }
+                default -> metadata.checkValue(field, value);
+            }
+            items.add(new Condition(field, operator, value, List.of()));
+            return this;
+        }
+
+        private static Object requireValue(Object value) {
+            if (value == null) {
+                throw new InvalidFieldException("Value cannot be null; use isNull instead.");
+            }
+            return value;
+        }
+    }
+
+    enum Operator {
+        EQ("="), LIKE("like"), GT(">"), GE(">="), LT("<"), LE("<="),
+        BETWEEN("between"), IN("in"), IS_NULL("is null"), IS_NOT_NULL("is not null"), OR("or");
+
+        private final String jpql;
+
+        Operator(String jpql) {
+            this.jpql = jpql;
+        }
     }
 
-    /** Validates that the provided class is a valid JPA entity. */
-    private void validateEntityClass(Class<T> entityClass) {
-        if (entityClass == null) {
-            throw new InvalidEntityException("Entity class cannot be null.");
+    /** One condition; an OR group has no field and its members in {@code anyOf}. */
+    record Condition(String field, Operator operator, Object value, List<Condition> anyOf) {
+
+        /** Renders the condition, taking parameter numbers from {@code next[0]}. */
+        String toJpql(int[] next) {
+            String path = "e." + field;
+            return switch (operator) {
+                case IS_NULL, IS_NOT_NULL -> path + " " + operator.jpql;
+                case BETWEEN -> path + " between :p" + next[0]++ + " and :p" + next[0]++;
+                case IN -> path + " in (:p" + next[0]++ + ")";
+                case OR -> {
+                    StringJoiner group = new StringJoiner(" or ", "(", ")");
+                    anyOf.forEach(member -> group.add(member.toJpql(next)));
+                    yield group.toString();
+                }
+                default -> path + " " + operator.jpql + " :p" + next[0]++;
+            };
         }
-        if (!entityClass.isAnnotationPresent(Entity.class)) {
-            throw new InvalidEntityException(entityClass.getSimpleName() + " is not a JPA entity.");
+
+        /** Adds the parameter values in the order toJpql numbers them. */
+        void collectValues(List<Object> values) {
+            switch (operator) {
+                case IS_NULL, IS_NOT_NULL -> { }
+                case BETWEEN -> values.addAll((List<?>) value);
+                case OR -> anyOf.forEach(member -> member.collectValues(values));
+                default -> values.add(value);
+            }
+        }
+
+        /** Describes the condition for the plan cache key, without its values. */
+        String shape() {
+            if (operator == Operator.OR) {
+                StringJoiner group = new StringJoiner("|", "or(", ")");
+                anyOf.forEach(member -> group.add(member.shape()));
+                return group.toString();
+            }
+            return operator.name().toLowerCase() + ":" + field;
+        }
+    }
+
+    /** One sort column. */
+    record Order(String field, boolean ascending, boolean ignoreCase) {
+
+        String toJpql() {
+            String path = ignoreCase ? "lower(e." + field + ")" : "e." + field;
+            return path + (ascending ? " asc" : " desc");
+        }
+    }
+
+    /**
+     * Field projection of the enclosing builder. Projected rows are not managed entities,
+     * so they are never dirty-checked; queries also run with the read-only hint.
+     */
+    public class Projection {
+        private final String[] fields;
+
+        private Projection(String[] fields) {
+            this.fields = fields;
+        }
+
+        /** Executes the projection, returning one tuple per row; elements are aliased by field name with dots replaced by underscores. */
+        public List<Tuple> getResult() {
+            QueryPlanCache.Key key = shapeKey("select:" + String.join(",", fields));
+            TypedQuery<Tuple> query = queryCache.createQuery(em, key, Tuple.class, () -> {
+                StringJoiner select = new StringJoiner(", ");
+                for (String field : fields) {
+                    select.add("e." + field + " as " + field.replace('.', '_'));
+                }
+                return "select " + select + " from " + metadata.entityName() + " e" + whereSuffix() + orderSuffix();
+            });
+            return execute(key, query);
+        }
+
+        /**
+         * Executes the projection through a constructor expression, e.g. a record whose
+         * canonical constructor takes the selected fields in order.
+         */
+        public <R> List<R> as(Class<R> type) {
+            if (type == null) {
+                throw new InvalidFieldException("Projection type cannot be null.");
+            }
+            QueryPlanCache.Key key = shapeKey("as:" + type.getName() + ":" + String.join(",", fields));
+            TypedQuery<R> query = queryCache.createQuery(em, key, type, () -> {
+                StringJoiner args = new StringJoiner(", ");
+                for (String field : fields) {
+                    args.add("e." + field);
+                }
+                return "select new " + type.getName() + "(" + args + ") from " + metadata.entityName() + " e"
+                        + whereSuffix() + orderSuffix();
+            });
+            return execute(key, query);
+        }
+
+        private <R> List<R> execute(QueryPlanCache.Key key, TypedQuery<R> query) {
+            RepositoryMetrics.Sample start = startTimer();
+            setParameters(query);
+            applyHints(query);
+            setPagination(query);
+            query.setHint(QueryHints.READ_ONLY, true);
+            List<R> result = query.getResultList();
+            record(key, start, result.size());
+            return result;
+        }
+    }
+
+    /** Aggregate functions for {@link Grouping#having}. */
+    public enum Aggregate {
+        COUNT("count"), SUM("sum"), AVG("avg"), MIN("min"), MAX("max");
+
+        private final String jpql;
+
+        Aggregate(String jpql) {
+            this.jpql = jpql;
+        }
+
+        /** Renders the function on the field; COUNT without a field counts rows. */
+        private String of(String field) {
+            return jpql + "(e" + (field == null ? "" : "." + field) + ")";
+        }
+    }
+
+    /** Comparisons for {@link Grouping#having}. */
+    public enum Comparison {
+        EQ("="), NE("<>"), GT(">"), GE(">="), LT("<"), LE("<=");
+
+        private final String jpql;
+
+        Comparison(String jpql) {
+            this.jpql = jpql;
+        }
+    }
+
+    /**
+     * Rows of the enclosing builder grouped by one field. Each terminal runs one
+     * GROUP BY query and returns the aggregate per group key, ordered by key.
+     */
+    public class Grouping<K> {
+        private final String field;
+        private final Class<K> keyType;
+        private final List<String> having = new ArrayList<>();
+        private final List<Object> havingValues = new ArrayList<>();
+
+        private Grouping(String field, Class<K> keyType) {
+            this.field = field;
+            this.keyType = keyType;
+        }
+
+        /** Keeps only groups whose aggregate compares to value; field is ignored for COUNT. */
+        public Grouping<K> having(Aggregate function, String field, Comparison comparison, Number value) {
+            if (function == null || comparison == null || value == null) {
+                throw new InvalidFieldException("Having function, comparison and value cannot be null.");
+            }
+            String target = function == Aggregate.COUNT ? null : requireField(field, "Field name cannot be null or empty.");
+            if (target != null) {
+                metadata.checkNumeric(target);
+            }
+            having.add(function.of(target) + " " + comparison.jpql + " :h" + havingValues.size());
+            // count() is a Long and avg() a Double in JPQL, so bind the value with that type
+            havingValues.add(function == Aggregate.COUNT ? Long.valueOf(value.longValue())
+                    : function == Aggregate.AVG ? Double.valueOf(value.doubleValue()) : value);
+            return this;
+        }
+
+        /** Number of rows per group. */
+        public Map<K, Long> count() {
+            return execute(Aggregate.COUNT, null, Long.class);
+        }
+
+        /** Sum of the field per group: Long for integral, Double for floating point fields. */
+        public Map<K, Number> sum(String field) {
+            metadata.checkNumeric(requireField(field, "Field name cannot be null or empty."));
+            return execute(Aggregate.SUM, field, Number.class);
+        }
+
+        /** Average of the field per group. */
+        public Map<K, Double> avg(String field) {
+            metadata.checkNumeric(requireField(field, "Field name cannot be null or empty."));
+            return execute(Aggregate.AVG, field, Double.class);
+        }
+
+        public <R> Map<K, R> min(String field, Class<R> type) {
+            checkComparableResult(field, type);
+            return execute(Aggregate.MIN, field, type);
+        }
+
+        public <R> Map<K, R> max(String field, Class<R> type) {
+            checkComparableResult(field, type);
+            return execute(Aggregate.MAX, field, type);
+        }
+
+        private <R> Map<K, R> execute(Aggregate function, String target, Class<R> valueType) {
+            RepositoryMetrics.Sample start = startTimer();
+            String key = "e." + field;
+            String operation = "group:" + field + ":" + function.of(target) + (having.isEmpty() ? "" : " having " + having);
+            QueryPlanCache.Key shape = shapeKey(operation);
+            TypedQuery<Object[]> query = queryCache.createQuery(em, shape, Object[].class, () -> {
+                String ql = "select " + key + ", " + function.of(target) + " from " + metadata.entityName() + " e"
+                        + whereSuffix() + " group by " + key;
+                if (!having.isEmpty()) {
+                    ql += " having " + String.join(" and ", having);
+                }
+                return ql + " order by " + key;
+            });
+            setParameters(query);
+            for (int i = 0; i < havingValues.size(); i++) {
+                query.setParameter("h" + i, havingValues.get(i));
+            }
+            applyHints(query);
+            List<Object[]> rows = query.getResultList();
+            Map<K, R> result = new LinkedHashMap<>(rows.size() * 2);
+            for (Object[] row : rows) {
+                Object value = row[1];
+                if (valueType == Double.class && value instanceof Number number) {
+                    value = number.doubleValue();
+                }
+                result.put(keyType.cast(row[0]), valueType.cast(value));
+            }
+            record(shape, start, rows.size());
+            return result;
+        }
+    }
+
+    /**
+     * Records executions of this builder in the given metrics, per query shape,
+     * counting the statements and managed entities of the session behind {@code session}.
+     */
+    FindBuilder<T> instrument(RepositoryMetrics metrics, Supplier<RepositoryMetrics.SessionCounters> session) {
+        this.metrics = metrics;
+        this.session = session;
+        return this;
+    }
+
+    private RepositoryMetrics.Sample startTimer() {
+        return metrics == null ? null : metrics.start(session);
+    }
+
+    private void record(String operation, RepositoryMetrics.Sample start, long rows) {
+        if (start != null) {
+            record(shapeKey(operation), start, rows);
+        }
+    }
+
+    private void record(QueryPlanCache.Key key, RepositoryMetrics.Sample start, long rows) {
+        if (start != null) {
+            metrics.record(key.describe(), start, rows);
         }
     }
 }
@@ -1,20 +1,37 @@
 package com.example.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface GenericRepository {
     <T> T findById(Class<T> entityClass, Object id);
 
     <T> List<T> findAll(Class<T> entityClass);
 
+    <T> List<T> findAllById(Class<T> entityClass, Collection<?> ids);
+
+    <T> IdLookupResult<T> tryFindAllById(Class<T> entityClass, Collection<?> ids);
+
+    <T> Stream<T> streamAll(Class<T> entityClass);
+
     <T> List<T> findBy(Class<T> entityClass, String fieldName, Object value);
 
     <T> T save(T entity);
 
     <T> void delete(T entity);
 
+    <T> T update(Class<T> entityClass, Object id, Consumer<? super T> changes);
+
     <T> void deleteById(Class<T> entityClass, Object id);
 
+    <T> List<T> saveAll(Iterable<T> entities);
+
+    <T> void deleteAll(Iterable<T> entities);
+
+    <T> void deleteAllById(Class<T> entityClass, Collection<?> ids);
+
     <T> long count(Class<T> entityClass);
 
     <T> boolean existsById(Class<T> entityClass, Object id);
@@ -29,6 +46,14 @@ public interface GenericRepository {
 
     <T> FindBuilder<T> findBy(Class<T> entityClass);
 
+    <T> ScanReport parallelScan(Class<T> entityClass, int partitions, Consumer<? super T> action);
+
+    <T> void detach(T entity);
+
+    void clear();
+
+    int getManagedEntityCount();
+
     <T> void listAll(Class<T> entityClass, List<T> result);
 
     <T> void listAll(Class<T> entityClass, List<T> result, int row);
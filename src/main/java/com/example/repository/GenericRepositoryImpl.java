@@ -2,24 +2,221 @@ package com.example.repository;
 
 import com.example.exception.*;
 
-import javax.persistence.EntityManager;
-import java.util.List;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class GenericRepositoryImpl implements GenericRepository {
+    private static final Logger log = LoggerFactory.getLogger(GenericRepositoryImpl.class);
+
+    /** Keep in sync with hibernate.jdbc.batch_size and the entities' sequence allocationSize. */
+    public static final int DEFAULT_BATCH_SIZE = 50;
 
     private final EntityManager em;
+    private final QueryPlanCache queryCache;
+    private final EntityMetadata.Registry entities;
+
+    // Number of rows written before the persistence context is flushed and cleared
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    // Rows fetched per round trip by streaming reads
+    private int fetchSize = ResultStreams.DEFAULT_FETCH_SIZE;
+
+    // Hints applied to every read, and passed on to builders created by this repository
+    private final Map<String, Object> defaultHints = new LinkedHashMap<>();
+
+    // Per-entity overrides of whether findBy/findOneBy lookups go through the query cache
+    private final Map<Class<?>, Boolean> queryCacheOverrides = new HashMap<>();
+
+    // Managed entities above which the persistence context is cleared before the next operation; 0 = unbounded
+    private int maxManagedEntities;
+    // Whether every operation starts with an empty persistence context
+    private boolean clearPerOperation;
+    private long autoClearCount;
+    // Whether save/delete ran outside a transaction since the last clear, so the context holds unflushed writes
+    private boolean unflushedWrites;
+    private boolean unflushedWritesReported;
 
     public GenericRepositoryImpl(EntityManager em) {
+        this(em, QueryPlanCache.forFactory(em.getEntityManagerFactory()));
+    }
+
+    public GenericRepositoryImpl(EntityManager em, QueryPlanCache queryCache) {
         this.em = em;
+        this.queryCache = queryCache;
+        this.entities = EntityMetadata.forFactory(em.getEntityManagerFactory());
+    }
+
+    public QueryPlanCache getQueryCache() {
+        return queryCache;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch boyutu 0 veya negatif olamaz.");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("Fetch boyutu 0 veya negatif olamaz.");
+        }
+        this.fetchSize = fetchSize;
+        defaultHints.put(QueryHints.FETCH_SIZE, fetchSize);
+    }
+
+    /**
+     * Makes all reads of this repository read-only: loaded entities get no dirty-checking
+     * snapshot and queries do not trigger an auto-flush. Entities loaded this way are
+     * not written back on flush, so use it only for paths that do not modify them.
+     */
+    public void setReadOnly(boolean readOnly) {
+        if (readOnly) {
+            defaultHints.put(QueryHints.READ_ONLY, true);
+            defaultHints.put(QueryHints.FLUSH_MODE, QueryHints.FLUSH_COMMIT);
+        } else {
+            defaultHints.remove(QueryHints.READ_ONLY);
+            defaultHints.remove(QueryHints.FLUSH_MODE);
+        }
+    }
+
+    public boolean isReadOnly() {
+        return Boolean.TRUE.equals(defaultHints.get(QueryHints.READ_ONLY));
+    }
+
+    /** Sets the timeout in milliseconds for all reads of this repository. */
+    public void setQueryTimeout(int timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Timeout 0 veya negatif olamaz.");
+        }
+        defaultHints.put(QueryHints.TIMEOUT, timeoutMillis);
+    }
+
+    /** Sets a hint for all reads of this repository; a null value removes it. */
+    public void setDefaultHint(String name, Object value) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Hint adı boş olamaz.");
+        }
+        if (value == null) {
+            defaultHints.remove(name);
+        } else {
+            defaultHints.put(name, value);
+        }
+    }
+
+    /**
+     * Enables or disables the query cache for findBy/findOneBy lookups on the entity,
+     * which must be annotated with {@code @Cacheable}. By default only entities annotated
+     * with {@link QueryCacheable} use it, e.g. Department but not Employee: every write
+     * to the entity invalidates its cached results. Single queries can opt in with
+     * {@link FindBuilder#cacheable()}.
+     */
+    public void setQueryCacheEnabled(Class<?> entityClass, boolean enabled) {
+        EntityMetadata<?> metadata = metadata(entityClass);
+        if (enabled && !metadata.isCacheable()) {
+            throw new InvalidEntityException(metadata.entityName() + " @Cacheable değildir, sorgu önbelleği kullanılamaz.");
+        }
+        queryCacheOverrides.put(entityClass, enabled);
+    }
+
+    public boolean isQueryCacheEnabled(Class<?> entityClass) {
+        return queryCacheEnabled(metadata(entityClass));
     }
 
+    public Map<String, Object> getDefaultHints() {
+        return Map.copyOf(defaultHints);
+    }
+
+    /**
+     * Bounds the persistence context of a long-lived repository: once more than
+     * {@code maxManagedEntities} entities are managed, the next operation first flushes
+     * (inside a transaction) and clears it, so flush and dirty-checking cost stay flat.
+     * Entities returned earlier become detached. 0 disables the bound.
+     * Outside a transaction the context is not cleared while it holds saves or deletes
+     * made without a transaction; changes made only through setters are not tracked
+     * and are discarded by the clear.
+     */
+    public void setMaxManagedEntities(int maxManagedEntities) {
+        if (maxManagedEntities < 0) {
+            throw new IllegalArgumentException("Managed entity sınırı negatif olamaz.");
+        }
+        this.maxManagedEntities = maxManagedEntities;
+    }
+
+    public int getMaxManagedEntities() {
+        return maxManagedEntities;
+    }
+
+    /**
+     * Starts every operation with an empty persistence context, so entities are managed
+     * only until the next repository call. Changes made to them in between are flushed
+     * first when a transaction is active; see {@link #setMaxManagedEntities} for the
+     * rules outside a transaction.
+     */
+    public void setClearPerOperation(boolean clearPerOperation) {
+        this.clearPerOperation = clearPerOperation;
+    }
+
+    public boolean isClearPerOperation() {
+        return clearPerOperation;
+    }
+
+    /** Number of times the persistence context was cleared by the bounds above. */
+    public long getAutoClearCount() {
+        return autoClearCount;
+    }
+
+    /** The EntityManager this repository works on, for decorators in this package. */
+    EntityManager getEntityManager() {
+        return em;
+    }
+
+    /** Number of entities currently managed by the EntityManager. */
     @Override
-    public <T> T findById(Class<T> entityClass, Object id) {
-        validateEntityClass(entityClass);
-        if (id == null) {
-            throw new InvalidIdException("ID null olamaz: " + entityClass.getSimpleName());
+    public int getManagedEntityCount() {
+        return em.unwrap(Session.class).getStatistics().getEntityCount();
+    }
+
+    @Override
+    public <T> void detach(T entity) {
+        validateEntity(entity, "Detach edilecek entity null olamaz.");
+        em.detach(entity);
+    }
+
+    /**
+     * Detaches all managed entities. Pending changes are flushed first when a transaction
+     * is active; without a transaction they are discarded, as with EntityManager.clear().
+     */
+    @Override
+    public void clear() {
+        if (em.getTransaction().isActive()) {
+            em.flush();
         }
-        T entity = em.find(entityClass, id);
+        em.clear();
+        unflushedWrites = false;
+        unflushedWritesReported = false;
+    }
+
+    @Override
+    public <T> T findById(Class<T> entityClass, Object id) {
+        boundPersistenceContext();
+        validateId(metadata(entityClass), id);
+        T entity = find(entityClass, id);
         if (entity == null) {
             throw new EntityNotFoundException(entityClass.getSimpleName() + " için ID bulunamadı: " + id);
         }
@@ -28,45 +225,144 @@ public class GenericRepositoryImpl implements GenericRepository {
 
     @Override
     public <T> List<T> findAll(Class<T> entityClass) {
-        validateEntityClass(entityClass);
-        String entityName = entityClass.getSimpleName();
-        return em.createQuery("from " + entityName, entityClass).getResultList();
+        boundPersistenceContext();
+        String entityName = metadata(entityClass).entityName();
+        return withHints(queryCache.createQuery(em, QueryPlanCache.Key.of(entityClass, "findAll"), entityClass,
+                        () -> "from " + entityName))
+                .getResultList();
+    }
+
+    /**
+     * Loads the entities with the given ids, in the order of the ids (duplicates included).
+     * Fails with EntityNotFoundException listing the ids that do not exist.
+     */
+    @Override
+    public <T> List<T> findAllById(Class<T> entityClass, Collection<?> ids) {
+        IdLookupResult<T> result = tryFindAllById(entityClass, ids);
+        if (result.hasMissing()) {
+            throw new EntityNotFoundException(entityClass.getSimpleName() + " için bazı ID'ler bulunamadı: " + result.getMissingIds());
+        }
+        return result.getFound();
+    }
+
+    /**
+     * Loads the entities with the given ids and reports the ids that do not exist.
+     * Ids already in the persistence context or the second-level cache are served
+     * from there; the rest are loaded with IN queries, in chunks that Hibernate sizes
+     * to the dialect's parameter limit.
+     */
+    @Override
+    public <T> IdLookupResult<T> tryFindAllById(Class<T> entityClass, Collection<?> ids) {
+        boundPersistenceContext();
+        EntityMetadata<T> metadata = metadata(entityClass);
+        if (ids == null) {
+            throw new InvalidIdException("ID listesi null olamaz: " + entityClass.getSimpleName());
+        }
+        ids.forEach(id -> validateId(metadata, id));
+        List<Object> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinctIds.isEmpty()) {
+            return new IdLookupResult<>(List.of(), List.of());
+        }
+
+        List<T> loaded = em.unwrap(Session.class).byMultipleIds(entityClass)
+                .enableSessionCheck(true)
+                .enableOrderedReturn(true)
+                .multiLoad(distinctIds);
+
+        Map<Object, T> byId = new HashMap<>(distinctIds.size() * 2);
+        List<Object> missingIds = new ArrayList<>();
+        for (int i = 0; i < distinctIds.size(); i++) {
+            T entity = loaded.get(i);
+            if (entity == null) {
+                missingIds.add(distinctIds.get(i));
+            } else {
+                byId.put(distinctIds.get(i), entity);
+            }
+        }
+        List<T> found = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            T entity = byId.get(id);
+            if (entity != null) {
+                found.add(entity);
+            }
+        }
+        return new IdLookupResult<>(found, missingIds);
+    }
+
+    /**
+     * Streams all entities through a forward-only cursor, detaching each one after it
+     * has been processed. The stream must be closed to release the cursor.
+     */
+    @Override
+    public <T> Stream<T> streamAll(Class<T> entityClass) {
+        boundPersistenceContext();
+        String entityName = metadata(entityClass).entityName();
+        return ResultStreams.stream(em,
+                withHints(queryCache.createQuery(em, QueryPlanCache.Key.of(entityClass, "findAll"), entityClass,
+                        () -> "from " + entityName)),
+                fetchSize);
     }
 
     @Override
     public <T> List<T> findBy(Class<T> entityClass, String fieldName, Object value) {
-        validateEntityClass(entityClass);
+        boundPersistenceContext();
+        EntityMetadata<T> metadata = metadata(entityClass);
         if (fieldName == null || fieldName.trim().isEmpty()) {
             throw new InvalidFieldException("Alan adı boş olamaz.");
         }
-        String entityName = entityClass.getSimpleName();
-        String ql = "from " + entityName + " e where e." + fieldName + " = :val";
-        return em.createQuery(ql, entityClass)
+        metadata.checkValue(fieldName, value);
+        return findByQuery(metadata, fieldName)
                 .setParameter("val", value)
                 .getResultList();
     }
 
     @Override
     public <T> T save(T entity) {
-        if (entity == null) {
-            throw new InvalidEntityException("Kaydedilecek entity null olamaz.");
+        boundPersistenceContext();
+        validateEntity(entity, "Kaydedilecek entity null olamaz.");
+        trackWrite();
+        if (isNew(entity)) {
+            em.persist(entity);
+            return entity;
         }
-        Class<?> entityClass = entity.getClass();
-        if (!entityClass.isAnnotationPresent(javax.persistence.Entity.class)) {
-            throw new InvalidEntityException(entityClass.getSimpleName() + " bir JPA entity değildir.");
+        try {
+            return em.merge(entity);
+        } catch (RuntimeException e) {
+            throw translateConflict(e, entity.getClass(), EntityMetadata.idOf(em, entity));
         }
-        return em.merge(entity);
     }
 
+    /**
+     * Loads the entity, applies the changes and flushes, so that an optimistic lock
+     * conflict surfaces here as {@link OptimisticLockConflictException}. Must run inside
+     * a transaction; use {@link RepositoryFactory#update} to retry on conflicts.
+     */
     @Override
-    public <T> void delete(T entity) {
+    public <T> T update(Class<T> entityClass, Object id, Consumer<? super T> changes) {
+        boundPersistenceContext();
+        validateId(metadata(entityClass), id);
+        if (changes == null) {
+            throw new InvalidFieldException("Değişiklikler null olamaz.");
+        }
+        T entity = em.find(entityClass, id);
         if (entity == null) {
-            throw new InvalidEntityException("Silinecek entity null olamaz.");
+            throw new EntityNotFoundException(entityClass.getSimpleName() + " için ID bulunamadı: " + id);
         }
-        Class<?> entityClass = entity.getClass();
-        if (!entityClass.isAnnotationPresent(javax.persistence.Entity.class)) {
-            throw new InvalidEntityException(entityClass.getSimpleName() + " bir JPA entity değildir.");
+        changes.accept(entity);
+        try {
+            em.flush();
+        } catch (RuntimeException e) {
+            throw translateConflict(e, entityClass, id);
         }
+        return entity;
+    }
+
+    @Override
+    public <T> void delete(T entity) {
+        boundPersistenceContext();
+        validateEntity(entity, "Silinecek entity null olamaz.");
+        trackWrite();
+        Class<?> entityClass = entity.getClass();
         T managed = em.contains(entity) ? entity : em.merge(entity);
         if (managed == null) {
             throw new EntityNotFoundException("Entity silinemedi: " + entityClass.getSimpleName());
@@ -76,43 +372,122 @@ public class GenericRepositoryImpl implements GenericRepository {
 
     @Override
     public <T> void deleteById(Class<T> entityClass, Object id) {
-        validateEntityClass(entityClass);
-        if (id == null) {
-            throw new InvalidIdException("ID null olamaz: " + entityClass.getSimpleName());
-        }
+        boundPersistenceContext();
+        validateId(metadata(entityClass), id);
         T entity = em.find(entityClass, id);
         if (entity == null) {
             throw new EntityNotFoundException(entityClass.getSimpleName() + " için ID bulunamadı: " + id);
         }
+        trackWrite();
         em.remove(entity);
     }
 
+    /**
+     * Saves all entities, persisting new ones and merging the rest.
+     * Every {@code batchSize} rows the persistence context is flushed and the saved
+     * entities of that batch are detached, so earlier returned instances may already
+     * be detached. Other managed entities are left alone.
+     */
+    @Override
+    public <T> List<T> saveAll(Iterable<T> entities) {
+        boundPersistenceContext();
+        if (entities == null) {
+            throw new InvalidEntityException("Kaydedilecek entity listesi null olamaz.");
+        }
+        trackWrite();
+        List<T> saved = new ArrayList<>();
+        List<T> batch = new ArrayList<>(batchSize);
+        for (T entity : entities) {
+            validateEntity(entity, "Kaydedilecek entity null olamaz.");
+            T managed;
+            if (isNew(entity)) {
+                em.persist(entity);
+                managed = entity;
+            } else {
+                managed = em.merge(entity);
+            }
+            saved.add(managed);
+            batch.add(managed);
+            if (batch.size() == batchSize) {
+                flushAndDetach(batch);
+            }
+        }
+        return saved;
+    }
+
+    @Override
+    public <T> void deleteAll(Iterable<T> entities) {
+        boundPersistenceContext();
+        if (entities == null) {
+            throw new InvalidEntityException("Silinecek entity listesi null olamaz.");
+        }
+        trackWrite();
+        int written = 0;
+        for (T entity : entities) {
+            validateEntity(entity, "Silinecek entity null olamaz.");
+            em.remove(em.contains(entity) ? entity : em.merge(entity));
+            // Removed entities leave the persistence context when the delete is flushed
+            if (++written % batchSize == 0) {
+                em.flush();
+            }
+        }
+    }
+
+    /**
+     * Deletes entities by id, loading them in chunks of {@code batchSize} with an IN query
+     * so that cascades and orphan removal still apply.
+     */
+    @Override
+    public <T> void deleteAllById(Class<T> entityClass, Collection<?> ids) {
+        boundPersistenceContext();
+        EntityMetadata<T> metadata = metadata(entityClass);
+        if (ids == null) {
+            throw new InvalidIdException("ID listesi null olamaz: " + entityClass.getSimpleName());
+        }
+        ids.forEach(id -> validateId(metadata, id));
+        String entityName = metadata.entityName();
+        String idField = metadata.idAttributeName();
+        List<?> distinctIds = ids.stream().distinct().toList();
+
+        for (int from = 0; from < distinctIds.size(); from += batchSize) {
+            List<?> chunk = distinctIds.subList(from, Math.min(from + batchSize, distinctIds.size()));
+            List<T> found = queryCache.createQuery(em, QueryPlanCache.Key.of(entityClass, "findAllById", idField), entityClass,
+                            () -> "from " + entityName + " e where e." + idField + " in :ids")
+                    .setParameter("ids", chunk)
+                    .getResultList();
+            if (found.size() != chunk.size()) {
+                throw new EntityNotFoundException(entityClass.getSimpleName() + " için bazı ID'ler bulunamadı: " + chunk);
+            }
+            found.forEach(em::remove);
+            em.flush();
+        }
+    }
+
     @Override
     public <T> long count(Class<T> entityClass) {
-        validateEntityClass(entityClass);
-        String entityName = entityClass.getSimpleName();
-        return em.createQuery("select count(e) from " + entityName + " e", Long.class)
+        boundPersistenceContext();
+        String entityName = metadata(entityClass).entityName();
+        return withHints(queryCache.createQuery(em, QueryPlanCache.Key.of(entityClass, "count"), Long.class,
+                        () -> "select count(e) from " + entityName + " e"))
                 .getSingleResult();
     }
 
     @Override
     public <T> boolean existsById(Class<T> entityClass, Object id) {
-        validateEntityClass(entityClass);
-        if (id == null) {
-            throw new InvalidIdException("ID null olamaz: " + entityClass.getSimpleName());
-        }
-        return em.find(entityClass, id) != null;
+        boundPersistenceContext();
+        validateId(metadata(entityClass), id);
+        return find(entityClass, id) != null;
     }
 
     @Override
     public <T> T findOneBy(Class<T> entityClass, String fieldName, Object value) {
-        validateEntityClass(entityClass);
+        boundPersistenceContext();
+        EntityMetadata<T> metadata = metadata(entityClass);
         if (fieldName == null || fieldName.trim().isEmpty()) {
             throw new InvalidFieldException("Alan adı boş olamaz.");
         }
-        String entityName = entityClass.getSimpleName();
-        String ql = "from " + entityName + " e where e." + fieldName + " = :val";
-        List<T> results = em.createQuery(ql, entityClass)
+        metadata.checkValue(fieldName, value);
+        List<T> results = findByQuery(metadata, fieldName)
                 .setParameter("val", value)
                 .getResultList();
         if (results.isEmpty()) {
@@ -126,46 +501,72 @@ public class GenericRepositoryImpl implements GenericRepository {
 
     @Override
     public <T> List<T> findByLike(Class<T> entityClass, String fieldName, String pattern) {
-        validateEntityClass(entityClass);
+        boundPersistenceContext();
+        EntityMetadata<T> metadata = metadata(entityClass);
         if (fieldName == null || fieldName.trim().isEmpty()) {
             throw new InvalidFieldException("Alan adı boş olamaz.");
         }
         if (pattern == null) {
             throw new InvalidFieldException("Pattern null olamaz.");
         }
-        String entityName = entityClass.getSimpleName();
-        String ql = "from " + entityName + " e where e." + fieldName + " like :pattern";
-        return em.createQuery(ql, entityClass)
+        metadata.checkText(fieldName);
+        String entityName = metadata.entityName();
+        return withHints(queryCache.createQuery(em, QueryPlanCache.Key.of(entityClass, "findByLike", fieldName), entityClass,
+                        () -> "from " + entityName + " e where e." + fieldName + " like :pattern"))
                 .setParameter("pattern", pattern)
                 .getResultList();
     }
 
     @Override
     public <T> List<T> findAllSorted(Class<T> entityClass, String sortField, boolean ascending) {
-        validateEntityClass(entityClass);
+        boundPersistenceContext();
+        EntityMetadata<T> metadata = metadata(entityClass);
         if (sortField == null || sortField.trim().isEmpty()) {
             throw new InvalidFieldException("Sıralama alanı boş olamaz.");
         }
-        String entityName = entityClass.getSimpleName();
+        metadata.checkComparable(sortField);
+        String entityName = metadata.entityName();
         String order = ascending ? "asc" : "desc";
-        String ql = "from " + entityName + " e order by lower(e." + sortField + ") " + order;
-        return em.createQuery(ql, entityClass).getResultList();
+        // Text fields sort case-insensitively, other fields on the column as is
+        String column = metadata.attribute(sortField).javaType() == String.class
+                ? "lower(e." + sortField + ")"
+                : "e." + sortField;
+        QueryPlanCache.Key key = new QueryPlanCache.Key(entityClass, "findAllSorted", List.of(), column + " " + order, false);
+        return withHints(queryCache.createQuery(em, key, entityClass,
+                        () -> "from " + entityName + " e order by " + column + " " + order))
+                .getResultList();
     }
 
     @Override
     public <T> FindBuilder<T> findBy(Class<T> entityClass) {
-        validateEntityClass(entityClass);
-        return new FindBuilder<>(em, entityClass);
+        boundPersistenceContext();
+        metadata(entityClass);
+        FindBuilder<T> builder = new FindBuilder<>(em, entityClass, queryCache);
+        defaultHints.forEach(builder::hint);
+        return builder;
+    }
+
+    /**
+     * Processes every entity on {@code partitions} threads, each streaming its own id range
+     * with its own EntityManager; see {@link FindBuilder#parallelScan(int, Consumer, Consumer)}.
+     */
+    @Override
+    public <T> ScanReport parallelScan(Class<T> entityClass, int partitions, Consumer<? super T> action) {
+        return findBy(entityClass).parallelScan(partitions, action);
     }
 
     @Override
     public <T> List<T> findAllPaged(Class<T> entityClass, int page, int pageSize) {
-        validateEntityClass(entityClass);
+        boundPersistenceContext();
+        EntityMetadata<T> metadata = metadata(entityClass);
         if (page <= 0 || pageSize <= 0) {
             throw new InvalidPaginationException("Sayfa ve sayfa boyutu 0 veya negatif olamaz.");
         }
-        String entityName = entityClass.getSimpleName();
-        return em.createQuery("from " + entityName, entityClass)
+        String entityName = metadata.entityName();
+        String idField = metadata.idAttributeName();
+        // Ordered by id so that pages are stable between calls
+        return withHints(queryCache.createQuery(em, QueryPlanCache.Key.of(entityClass, "findAllPaged"), entityClass,
+                        () -> "from " + entityName + " e order by e." + idField))
                 .setFirstResult((page - 1) * pageSize)
                 .setMaxResults(pageSize)
                 .getResultList();
@@ -173,7 +574,7 @@ public class GenericRepositoryImpl implements GenericRepository {
 
     @Override
     public <T> void listAll(Class<T> entityClass, List<T> result) {
-        validateEntityClass(entityClass);
+        metadata(entityClass);
 
         System.out.println("---- Listing all " + entityClass.getSimpleName() + " ----");
         if (result.isEmpty()) {
@@ -185,7 +586,7 @@ public class GenericRepositoryImpl implements GenericRepository {
 
     @Override
     public <T> void listAll(Class<T> entityClass, List<T> result, int row) {
-        validateEntityClass(entityClass);
+        metadata(entityClass);
 
         if (row <= 0) {
             throw new InvalidPaginationException("Row count must be greater than 0.");
@@ -202,13 +603,115 @@ public class GenericRepositoryImpl implements GenericRepository {
     }
 
 
-    private <T> void validateEntityClass(Class<T> entityClass) {
+    /** Loads by id, passing the default hints as find properties. */
+    private <T> T find(Class<T> entityClass, Object id) {
+        return defaultHints.isEmpty() ? em.find(entityClass, id) : em.find(entityClass, id, defaultHints);
+    }
+
+    private <R> TypedQuery<R> withHints(TypedQuery<R> query) {
+        defaultHints.forEach(query::setHint);
+        return query;
+    }
+
+    /**
+     * Equality lookup shared by findBy and findOneBy. Lookups on second-level cached
+     * entities are marked as cacheable query results if the query cache is enabled for the entity.
+     */
+    private <T> TypedQuery<T> findByQuery(EntityMetadata<T> metadata, String fieldName) {
+        Class<T> entityClass = metadata.javaType();
+        String entityName = metadata.entityName();
+        TypedQuery<T> query = withHints(queryCache.createQuery(em, QueryPlanCache.Key.of(entityClass, "findBy", fieldName), entityClass,
+                () -> "from " + entityName + " e where e." + fieldName + " = :val"));
+        if (queryCacheEnabled(metadata)) {
+            query.setHint(QueryHints.CACHEABLE, true);
+        }
+        return query;
+    }
+
+    private boolean queryCacheEnabled(EntityMetadata<?> metadata) {
+        Boolean enabled = queryCacheOverrides.get(metadata.javaType());
+        return enabled != null ? enabled : metadata.isQueryCacheable();
+    }
+
+    private static RuntimeException translateConflict(RuntimeException e, Class<?> entityClass, Object id) {
+        if (OptimisticLocking.isConflict(e)) {
+            return new OptimisticLockConflictException(
+                    entityClass.getSimpleName() + " başka bir işlem tarafından değiştirildi: " + id, e);
+        }
+        return e;
+    }
+
+    /**
+     * Clears the persistence context before an operation when one of the bounds is exceeded.
+     * Without a transaction, writes cannot be flushed and clearing would lose them, so a
+     * context holding writes made outside a transaction is kept and a warning logged once.
+     */
+    private void boundPersistenceContext() {
+        if (!clearPerOperation && maxManagedEntities == 0) {
+            return;
+        }
+        int managed = getManagedEntityCount();
+        if (!clearPerOperation && managed <= maxManagedEntities) {
+            return;
+        }
+        if (unflushedWrites && !em.getTransaction().isActive()) {
+            if (!unflushedWritesReported) {
+                unflushedWritesReported = true;
+                log.warn("Persistence context holds {} entities and writes made outside a transaction; "
+                        + "it is not cleared until they are flushed in a transaction", managed);
+            }
+            return;
+        }
+        clear();
+        autoClearCount++;
+    }
+
+    /** Remembers a write made outside a transaction, which a clear would discard. */
+    private void trackWrite() {
+        if (!em.getTransaction().isActive()) {
+            unflushedWrites = true;
+        }
+    }
+
+    /** Flushes and detaches the entities of one saveAll batch, keeping the rest of the persistence context. */
+    private void flushAndDetach(List<?> batch) {
+        em.flush();
+        batch.forEach(em::detach);
+        batch.clear();
+    }
+
+    private boolean isNew(Object entity) {
+        return EntityMetadata.idOf(em, entity) == null;
+    }
+
+    private void validateEntity(Object entity, String nullMessage) {
+        if (entity == null) {
+            throw new InvalidEntityException(nullMessage);
+        }
+        if (entities.lookup(entity.getClass()) == null) {
+            throw new InvalidEntityException(entity.getClass().getSimpleName() + " bir JPA entity değildir.");
+        }
+    }
+
+    /** Returns the cached metamodel information of the class, failing if it is not an entity. */
+    private <T> EntityMetadata<T> metadata(Class<T> entityClass) {
         if (entityClass == null) {
             throw new InvalidEntityException("Entity sınıfı null olamaz.");
         }
-        if (!entityClass.isAnnotationPresent(javax.persistence.Entity.class)) {
+        EntityMetadata<T> metadata = entities.lookup(entityClass);
+        if (metadata == null) {
             throw new InvalidEntityException(entityClass.getSimpleName() + " bir JPA entity değildir.");
         }
+        return metadata;
+    }
+
+    private void validateId(EntityMetadata<?> metadata, Object id) {
+        if (id == null) {
+            throw new InvalidIdException("ID null olamaz: " + metadata.entityName());
+        }
+        if (!metadata.acceptsId(id)) {
+            throw new InvalidIdException(metadata.entityName() + " için ID tipi geçersiz: " + id.getClass().getSimpleName());
+        }
     }
 
 }
@@ -0,0 +1,30 @@
+package com.example.repository;
+
+import java.util.List;
+
+/**
+ * Result of {@link GenericRepository#tryFindAllById}: the entities that were found,
+ * in the order of the requested ids, and the ids that do not exist.
+ */
+public class IdLookupResult<T> {
+    private final List<T> found;
+    private final List<Object> missingIds;
+
+    public IdLookupResult(List<T> found, List<Object> missingIds) {
+        this.found = found;
+        this.missingIds = missingIds;
+    }
+
+    public List<T> getFound() { return found; }
+    public List<Object> getMissingIds() { return missingIds; }
+
+    public boolean hasMissing() { return !missingIds.isEmpty(); }
+
+    @Override
+    public String toString() {
+        return "IdLookupResult{" +
+                "found=" + found.size() +
+                ", missingIds=" + missingIds +
+                '}';
+    }
+}
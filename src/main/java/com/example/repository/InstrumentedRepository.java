@@ -0,0 +1,196 @@
+package com.example.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Decorator that records every repository call in {@link RepositoryMetrics},
+ * named "method:Entity", e.g. "findById:Employee". Builders returned by
+ * {@link #findBy(Class)} record their executions per query shape. JDBC statements
+ * and the persistence context size are recorded too when the delegate is a
+ * {@link GenericRepositoryImpl}.
+ * When the metrics are disabled each call costs one volatile read.
+ */
+public class InstrumentedRepository implements GenericRepository {
+
+    private final GenericRepository delegate;
+    private final RepositoryMetrics metrics;
+    private final Supplier<RepositoryMetrics.SessionCounters> session;
+
+    public InstrumentedRepository(GenericRepository delegate, RepositoryMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.session = delegate instanceof GenericRepositoryImpl impl
+                ? RepositoryMetrics.sessionCounters(impl.getEntityManager())
+                : () -> null;
+    }
+
+    public RepositoryMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public <T> T findById(Class<T> entityClass, Object id) {
+        return timed("findById", entityClass, () -> delegate.findById(entityClass, id));
+    }
+
+    @Override
+    public <T> List<T> findAll(Class<T> entityClass) {
+        return timed("findAll", entityClass, () -> delegate.findAll(entityClass));
+    }
+
+    @Override
+    public <T> List<T> findAllById(Class<T> entityClass, Collection<?> ids) {
+        return timed("findAllById", entityClass, () -> delegate.findAllById(entityClass, ids));
+    }
+
+    @Override
+    public <T> IdLookupResult<T> tryFindAllById(Class<T> entityClass, Collection<?> ids) {
+        return timed("tryFindAllById", entityClass, () -> delegate.tryFindAllById(entityClass, ids));
+    }
+
+    /** Only opening the cursor is timed, not consuming the stream. */
+    @Override
+    public <T> Stream<T> streamAll(Class<T> entityClass) {
+        return timed("streamAll", entityClass, () -> delegate.streamAll(entityClass));
+    }
+
+    @Override
+    public <T> List<T> findBy(Class<T> entityClass, String fieldName, Object value) {
+        return timed("findBy", entityClass, () -> delegate.findBy(entityClass, fieldName, value));
+    }
+
+    @Override
+    public <T> T save(T entity) {
+        return timed("save", entity, () -> delegate.save(entity));
+    }
+
+    @Override
+    public <T> T update(Class<T> entityClass, Object id, Consumer<? super T> changes) {
+        return timed("update", entityClass, () -> delegate.update(entityClass, id, changes));
+    }
+
+    @Override
+    public <T> void delete(T entity) {
+        timed("delete", entity, () -> {
+            delegate.delete(entity);
+            return null;
+        });
+    }
+
+    @Override
+    public <T> void deleteById(Class<T> entityClass, Object id) {
+        timed("deleteById", entityClass, () -> {
+            delegate.deleteById(entityClass, id);
+            return null;
+        });
+    }
+
+    @Override
+    public <T> List<T> saveAll(Iterable<T> entities) {
+        return timed("saveAll", null, () -> delegate.saveAll(entities));
+    }
+
+    @Override
+    public <T> void deleteAll(Iterable<T> entities) {
+        timed("deleteAll", null, () -> {
+            delegate.deleteAll(entities);
+            return null;
+        });
+    }
+
+    @Override
+    public <T> void deleteAllById(Class<T> entityClass, Collection<?> ids) {
+        timed("deleteAllById", entityClass, () -> {
+            delegate.deleteAllById(entityClass, ids);
+            return null;
+        });
+    }
+
+    @Override
+    public <T> long count(Class<T> entityClass) {
+        return timed("count", entityClass, () -> delegate.count(entityClass));
+    }
+
+    @Override
+    public <T> boolean existsById(Class<T> entityClass, Object id) {
+        return timed("existsById", entityClass, () -> delegate.existsById(entityClass, id));
+    }
+
+    @Override
+    public <T> T findOneBy(Class<T> entityClass, String fieldName, Object value) {
+        return timed("findOneBy", entityClass, () -> delegate.findOneBy(entityClass, fieldName, value));
+    }
+
+    @Override
+    public <T> List<T> findByLike(Class<T> entityClass, String fieldName, String pattern) {
+        return timed("findByLike", entityClass, () -> delegate.findByLike(entityClass, fieldName, pattern));
+    }
+
+    @Override
+    public <T> List<T> findAllSorted(Class<T> entityClass, String fieldName, boolean ascending) {
+        return timed("findAllSorted", entityClass, () -> delegate.findAllSorted(entityClass, fieldName, ascending));
+    }
+
+    @Override
+    public <T> List<T> findAllPaged(Class<T> entityClass, int page, int pageSize) {
+        return timed("findAllPaged", entityClass, () -> delegate.findAllPaged(entityClass, page, pageSize));
+    }
+
+    @Override
+    public <T> ScanReport parallelScan(Class<T> entityClass, int partitions, Consumer<? super T> action) {
+        return timed("parallelScan", entityClass, () -> delegate.parallelScan(entityClass, partitions, action));
+    }
+
+    @Override
+    public <T> FindBuilder<T> findBy(Class<T> entityClass) {
+        return delegate.findBy(entityClass).instrument(metrics, session);
+    }
+
+    @Override
+    public <T> void detach(T entity) {
+        delegate.detach(entity);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public int getManagedEntityCount() {
+        return delegate.getManagedEntityCount();
+    }
+
+    @Override
+    public <T> void listAll(Class<T> entityClass, List<T> result) {
+        delegate.listAll(entityClass, result);
+    }
+
+    @Override
+    public <T> void listAll(Class<T> entityClass, List<T> result, int row) {
+        delegate.listAll(entityClass, result, row);
+    }
+
+    /** Runs the call and records it; the target is an entity class, an entity or null. */
+    private <R> R timed(String method, Object target, Supplier<R> call) {
+        RepositoryMetrics.Sample start = metrics.start(session);
+        if (start == null) {
+            return call.get();
+        }
+        R result = call.get();
+        metrics.record(method + ":" + nameOf(target), start, RepositoryMetrics.rowsOf(result));
+        return result;
+    }
+
+    private static String nameOf(Object target) {
+        if (target == null) {
+            return "*";
+        }
+        Class<?> type = target instanceof Class<?> c ? c : target.getClass();
+        return type.getSimpleName();
+    }
+}
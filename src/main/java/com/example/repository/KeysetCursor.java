@@ -0,0 +1,89 @@
+package com.example.repository;
+
+import com.example.exception.InvalidPaginationException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Position of a row in a keyset ordered result: the values of the sort fields
+ * followed by the id used as a tiebreaker. Encoded as an opaque, URL safe token.
+ */
+record KeysetCursor(List<Object> values) {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    String encode() {
+        StringJoiner token = new StringJoiner(".");
+        values.forEach(value -> token.add(ENCODER.encodeToString(encodeValue(value))));
+        return token.toString();
+    }
+
+    static KeysetCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new InvalidPaginationException("Cursor cannot be null or empty.");
+        }
+        try {
+            List<Object> values = new ArrayList<>();
+            for (String part : token.split("\\.", -1)) {
+                values.add(decodeValue(DECODER.decode(part)));
+            }
+            return new KeysetCursor(values);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPaginationException("Invalid cursor: " + token);
+        }
+    }
+
+    /** Encodes the value as a one character type tag followed by its string form. */
+    private static byte[] encodeValue(Object value) {
+        String tagged;
+        if (value == null) {
+            tagged = "N";
+        } else if (value instanceof String s) {
+            tagged = "S" + s;
+        } else if (value instanceof Long l) {
+            tagged = "L" + l;
+        } else if (value instanceof Integer i) {
+            tagged = "I" + i;
+        } else if (value instanceof Double d) {
+            tagged = "D" + d;
+        } else if (value instanceof BigDecimal b) {
+            tagged = "B" + b;
+        } else if (value instanceof Boolean b) {
+            tagged = "Z" + b;
+        } else if (value instanceof LocalDate d) {
+            tagged = "d" + d;
+        } else if (value instanceof LocalDateTime t) {
+            tagged = "t" + t;
+        } else {
+            throw new InvalidPaginationException("Unsupported keyset type: " + value.getClass().getSimpleName());
+        }
+        return tagged.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Object decodeValue(byte[] bytes) {
+        String tagged = new String(bytes, StandardCharsets.UTF_8);
+        if (tagged.isEmpty()) {
+            throw new IllegalArgumentException("Empty cursor value");
+        }
+        String value = tagged.substring(1);
+        return switch (tagged.charAt(0)) {
+            case 'N' -> null;
+            case 'S' -> value;
+            case 'L' -> Long.valueOf(value);
+            case 'I' -> Integer.valueOf(value);
+            case 'D' -> Double.valueOf(value);
+            case 'B' -> new BigDecimal(value);
+            case 'Z' -> Boolean.valueOf(value);
+            case 'd' -> LocalDate.parse(value);
+            case 't' -> LocalDateTime.parse(value);
+            default -> throw new IllegalArgumentException("Unknown cursor type: " + tagged.charAt(0));
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.repository;
+
+import java.util.List;
+
+/**
+ * One page of a keyset paginated result.
+ * The cursors are opaque tokens to pass to {@link FindBuilder#after(String)}
+ * and {@link FindBuilder#before(String)}; they are null when there is no such page.
+ */
+public class KeysetPage<T> {
+    private final List<T> content;
+    private final String nextCursor;
+    private final String previousCursor;
+
+    public KeysetPage(List<T> content, String nextCursor, String previousCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+    }
+
+    public List<T> getContent() { return content; }
+    public String getNextCursor() { return nextCursor; }
+    public String getPreviousCursor() { return previousCursor; }
+
+    public boolean hasNext() { return nextCursor != null; }
+    public boolean hasPrevious() { return previousCursor != null; }
+
+    @Override
+    public String toString() {
+        return "KeysetPage{" +
+                "size=" + content.size() +
+                ", hasNext=" + hasNext() +
+                ", hasPrevious=" + hasPrevious() +
+                '}';
+    }
+}
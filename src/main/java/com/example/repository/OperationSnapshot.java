@@ -0,0 +1,53 @@
+package com.example.repository;
+
+/**
+ * Point-in-time statistics of one repository method or query shape.
+ * Latencies are in microseconds; percentiles are accurate to within 25%.
+ * Statements is the total number of JDBC statements the calls executed;
+ * maxManagedEntities the largest persistence context a call left behind.
+ */
+public class OperationSnapshot {
+    private final long count;
+    private final long rows;
+    private final long statements;
+    private final long meanMicros;
+    private final long p50Micros;
+    private final long p99Micros;
+    private final long maxMicros;
+    private final int maxManagedEntities;
+
+    public OperationSnapshot(long count, long rows, long statements, long meanMicros, long p50Micros, long p99Micros, long maxMicros,
+                             int maxManagedEntities) {
+        this.count = count;
+        this.rows = rows;
+        this.statements = statements;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+        this.maxManagedEntities = maxManagedEntities;
+    }
+
+    public long getCount() { return count; }
+    public long getRows() { return rows; }
+    public long getStatements() { return statements; }
+    public long getMeanMicros() { return meanMicros; }
+    public long getP50Micros() { return p50Micros; }
+    public long getP99Micros() { return p99Micros; }
+    public long getMaxMicros() { return maxMicros; }
+    public int getMaxManagedEntities() { return maxManagedEntities; }
+
+    @Override
+    public String toString() {
+        return "OperationSnapshot{" +
+                "count=" + count +
+                ", rows=" + rows +
+                ", statements=" + statements +
+                ", meanMicros=" + meanMicros +
+                ", p50Micros=" + p50Micros +
+                ", p99Micros=" + p99Micros +
+                ", maxMicros=" + maxMicros +
+                ", maxManagedEntities=" + maxManagedEntities +
+                '}';
+    }
+}
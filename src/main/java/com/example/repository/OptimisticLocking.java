@@ -0,0 +1,22 @@
+package com.example.repository;
+
+import org.hibernate.StaleStateException;
+
+import jakarta.persistence.OptimisticLockException;
+
+/**
+ * Recognizes optimistic lock failures, which Hibernate reports as different exceptions
+ * depending on whether they occur in merge, flush or commit.
+ */
+final class OptimisticLocking {
+    private OptimisticLocking() {}
+
+    static boolean isConflict(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof OptimisticLockException || t instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.repository;
+
+import java.util.List;
+
+/**
+ * One page of an offset paginated result together with the total number of matching rows.
+ */
+public class Page<T> {
+    private final List<T> content;
+    private final int page;
+    private final int pageSize;
+    private final long totalElements;
+
+    public Page(List<T> content, int page, int pageSize, long totalElements) {
+        this.content = content;
+        this.page = page;
+        this.pageSize = pageSize;
+        this.totalElements = totalElements;
+    }
+
+    public List<T> getContent() { return content; }
+    public int getPage() { return page; }
+    public int getPageSize() { return pageSize; }
+    public long getTotalElements() { return totalElements; }
+
+    public int getTotalPages() {
+        return (int) ((totalElements + pageSize - 1) / pageSize);
+    }
+
+    public boolean hasNext() {
+        return page < getTotalPages();
+    }
+
+    public boolean hasPrevious() {
+        return page > 1;
+    }
+
+    @Override
+    public String toString() {
+        return "Page{" +
+                "page=" + page +
+                ", pageSize=" + pageSize +
+                ", size=" + content.size() +
+                ", totalElements=" + totalElements +
+                '}';
+    }
+}
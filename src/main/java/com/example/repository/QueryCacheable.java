@@ -0,0 +1,18 @@
+package com.example.repository;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts findBy/findOneBy lookups on a {@code @Cacheable} entity in the query cache by
+ * default. Every write to the entity invalidates its cached results, so use it for
+ * rarely written reference data looked up by a few values, e.g. departments by name.
+ * A repository can override it per entity with
+ * {@link GenericRepositoryImpl#setQueryCacheEnabled(Class, boolean)}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryCacheable {
+}
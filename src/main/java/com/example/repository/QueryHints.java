@@ -0,0 +1,30 @@
+package com.example.repository;
+
+/**
+ * Names and values of the query hints used by the repository.
+ * Any other provider hint can be passed as a plain string through
+ * {@link FindBuilder#hint(String, Object)}.
+ */
+public final class QueryHints {
+    /** Loads entities without a dirty-checking snapshot. */
+    public static final String READ_ONLY = "org.hibernate.readOnly";
+    /** Flush mode for the query, e.g. {@link #FLUSH_COMMIT} to skip auto-flushing before it runs. */
+    public static final String FLUSH_MODE = "org.hibernate.flushMode";
+    /** JDBC fetch size. */
+    public static final String FETCH_SIZE = "org.hibernate.fetchSize";
+    /** Query timeout in milliseconds. */
+    public static final String TIMEOUT = "jakarta.persistence.query.timeout";
+    /** Stores the result in the query cache. */
+    public static final String CACHEABLE = "org.hibernate.cacheable";
+    /** Query cache region to use for a cacheable query. */
+    public static final String CACHE_REGION = "org.hibernate.cacheRegion";
+
+    /** Entity graph used as fetch graph. */
+    public static final String FETCH_GRAPH = "jakarta.persistence.fetchgraph";
+    /** Entity graph used as load graph. */
+    public static final String LOAD_GRAPH = "jakarta.persistence.loadgraph";
+
+    public static final String FLUSH_COMMIT = "COMMIT";
+
+    private QueryHints() {}
+}
@@ -0,0 +1,154 @@
+package com.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of the JPQL generated for query shapes.
+ *
+ * Each distinct shape (entity class, operation, field set, sort, paging) is
+ * turned into JPQL once, so subsequent executions skip the string building.
+ * Parsing is left to Hibernate's own plan cache, which is keyed by the JPQL
+ * string and bounded by hibernate.query.plan_cache_max_size; nothing is
+ * registered on the EntityManagerFactory, so an evicted shape holds no memory.
+ * Least recently used shapes are evicted once the cache is full.
+ *
+ * Example usage:
+ * TypedQuery<Employee> q = cache.createQuery(em, key, Employee.class,
+ *         () -> "from Employee e where e.email = :val");
+ */
+public class QueryPlanCache {
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    // One cache per EntityManagerFactory, shared by all of its repositories
+    private static final Map<EntityManagerFactory, QueryPlanCache> CACHES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final int maxSize;
+    private final Map<Key, String> queries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public QueryPlanCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be greater than 0.");
+        }
+        this.maxSize = maxSize;
+        this.queries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+                if (size() > QueryPlanCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** Returns the cache shared by all repositories of the given factory. */
+    public static QueryPlanCache forFactory(EntityManagerFactory emf) {
+        return CACHES.computeIfAbsent(emf, f -> new QueryPlanCache(DEFAULT_MAX_SIZE));
+    }
+
+    /**
+     * Returns a query for the given shape. The JPQL supplier is only invoked
+     * on a cache miss.
+     */
+    public <R> TypedQuery<R> createQuery(EntityManager em, Key key, Class<R> resultType, Supplier<String> jpql) {
+        return em.createQuery(jpql(key, jpql), resultType);
+    }
+
+    /**
+     * Returns the JPQL of the given shape, e.g. for bulk update and delete statements.
+     * The JPQL supplier is only invoked on a cache miss.
+     */
+    public String jpql(Key key, Supplier<String> jpql) {
+        String ql;
+        synchronized (queries) {
+            ql = queries.get(key);
+        }
+        if (ql != null) {
+            hits.increment();
+            return ql;
+        }
+
+        misses.increment();
+        ql = jpql.get();
+        synchronized (queries) {
+            queries.put(key, ql);
+        }
+        return ql;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        synchronized (queries) {
+            return queries.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /** Removes all cached shapes. Counters are kept. */
+    public void clear() {
+        synchronized (queries) {
+            queries.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "QueryPlanCache{" +
+                "size=" + size() +
+                ", maxSize=" + maxSize +
+                ", hits=" + getHitCount() +
+                ", misses=" + getMissCount() +
+                ", evictions=" + getEvictionCount() +
+                '}';
+    }
+
+    /**
+     * Identifies a query shape. Parameter values are never part of the key.
+     */
+    public record Key(Class<?> entityClass, String operation, List<String> fields, String sort, boolean paged) {
+
+        public static Key of(Class<?> entityClass, String operation, String... fields) {
+            return new Key(entityClass, operation, List.of(fields), null, false);
+        }
+
+        /** Short readable form, e.g. "Employee.find[eq:firstName, like:lastName] order by salary asc paged". */
+        public String describe() {
+            StringBuilder sb = new StringBuilder(entityClass.getSimpleName()).append('.').append(operation);
+            if (!fields.isEmpty()) {
+                sb.append(fields);
+            }
+            if (sort != null) {
+                sb.append(" order by ").append(sort);
+            }
+            if (paged) {
+                sb.append(" paged");
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Hands out repositories bound to a fresh EntityManager per unit of work.
+ * Unlike a GenericRepositoryImpl around one long-lived EntityManager, a factory
+ * is thread-safe and can be shared by the whole application.
+ * Entities returned from a unit of work are detached.
+ *
+ * Example usage:
+ * RepositoryFactory repositories = new RepositoryFactory(JPAUtil.getEntityManagerFactory());
+ * Employee saved = repositories.inTransaction(repo -> repo.save(employee));
+ * long count = repositories.withRepository(repo -> repo.count(Employee.class));
+ * repositories.update(Employee.class, id, e -> e.setSalary(e.getSalary() * 1.1));
+ */
+public class RepositoryFactory {
+    private final EntityManagerFactory emf;
+
+    public RepositoryFactory(EntityManagerFactory emf) {
+        if (emf == null) {
+            throw new IllegalArgumentException("EntityManagerFactory cannot be null.");
+        }
+        this.emf = emf;
+    }
+
+    public EntityManagerFactory getEntityManagerFactory() {
+        return emf;
+    }
+
+    /** Runs the work in a transaction, committing on success and rolling back on any exception. */
+    public <R> R inTransaction(Function<GenericRepository, R> work) {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        try {
+            tx.begin();
+            R result = work.apply(createRepository(em));
+            tx.commit();
+            return result;
+        } catch (RuntimeException e) {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Runs the work in a transaction and runs it again in a new transaction when it
+     * fails with an optimistic lock conflict, up to the policy's number of attempts.
+     * The work must be safe to repeat, e.g. reload what it changes.
+     */
+    public <R> R inTransaction(Function<GenericRepository, R> work, RetryPolicy retryPolicy) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return inTransaction(work);
+            } catch (RuntimeException e) {
+                if (attempt >= retryPolicy.maxAttempts() || !OptimisticLocking.isConflict(e)) {
+                    throw e;
+                }
+                backoff(retryPolicy.backoffMillis(attempt));
+            }
+        }
+    }
+
+    /** Loads the entity, applies the changes and commits, retrying on conflicts per {@link RetryPolicy#DEFAULT}. */
+    public <T> T update(Class<T> entityClass, Object id, Consumer<? super T> changes) {
+        return inTransaction(repo -> repo.update(entityClass, id, changes), RetryPolicy.DEFAULT);
+    }
+
+    /** Same as {@link #inTransaction(Function)} for work without a result. */
+    public void runInTransaction(Consumer<GenericRepository> work) {
+        inTransaction(repo -> {
+            work.accept(repo);
+            return null;
+        });
+    }
+
+    /** Runs read-only work without a transaction; the EntityManager is closed afterwards. */
+    public <R> R withRepository(Function<GenericRepository, R> work) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return work.apply(createRepository(em));
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void backoff(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry.", e);
+        }
+    }
+
+    /** Creates the repository for one unit of work; instrumented with the factory's shared metrics. */
+    protected GenericRepository createRepository(EntityManager em) {
+        return new InstrumentedRepository(new GenericRepositoryImpl(em), RepositoryMetrics.forFactory(emf));
+    }
+}
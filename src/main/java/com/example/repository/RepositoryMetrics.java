@@ -0,0 +1,329 @@
+package com.example.repository;
+
+import org.hibernate.Session;
+import org.hibernate.SessionEventListener;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Call counts, latency histograms, row and JDBC statement counts per repository
+ * method and per FindBuilder query shape, plus a slow query log.
+ * Disabled by default; when disabled, recording is a single volatile read and
+ * Hibernate statistics stay off unless hibernate.generate_statistics turns them on.
+ *
+ * Example usage:
+ * RepositoryMetrics metrics = RepositoryMetrics.forFactory(emf);
+ * metrics.setEnabled(true);
+ * metrics.registerMBean("corpPU");
+ * GenericRepository repo = new InstrumentedRepository(new GenericRepositoryImpl(em), metrics);
+ */
+public class RepositoryMetrics implements RepositoryMetricsMXBean {
+    private static final Logger log = LoggerFactory.getLogger(RepositoryMetrics.class);
+
+    public static final long DEFAULT_SLOW_QUERY_THRESHOLD_MILLIS = 500;
+
+    private static final Map<EntityManagerFactory, RepositoryMetrics> METRICS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final EntityManagerFactory emf;
+    private final Map<String, Histogram> operations = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled;
+    private boolean statisticsEnabledByMetrics;
+    private volatile long slowQueryThresholdNanos = DEFAULT_SLOW_QUERY_THRESHOLD_MILLIS * 1_000_000;
+
+    public RepositoryMetrics(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    /** Returns the metrics shared by all repositories of the given factory. */
+    public static RepositoryMetrics forFactory(EntityManagerFactory emf) {
+        return METRICS.computeIfAbsent(emf, RepositoryMetrics::new);
+    }
+
+    /** Registers this instance on the platform MBean server. */
+    public void registerMBean(String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                    new ObjectName("com.example.repository:type=RepositoryMetrics,name=" + ObjectName.quote(name)));
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register repository metrics MBean: " + name, e);
+        }
+    }
+
+    /** Returns the start time for {@link #record}, or 0 when disabled. */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /** Records a call that started at {@code start} (see {@link #start()}) and returned the given number of rows. */
+    public void record(String operation, long start, long rows) {
+        record(operation, start, rows, 0, 0);
+    }
+
+    /**
+     * Starts timing a call on the session watched by the given counters
+     * (see {@link #sessionCounters}), or returns null when disabled.
+     */
+    Sample start(Supplier<SessionCounters> session) {
+        if (!enabled) {
+            return null;
+        }
+        SessionCounters counters = session.get();
+        return new Sample(System.nanoTime(), counters, counters == null ? 0 : counters.statements());
+    }
+
+    /**
+     * Records a call started with {@link #start(Supplier)}, with the statements it executed
+     * and the size of the persistence context it left behind.
+     */
+    void record(String operation, Sample sample, long rows) {
+        if (sample == null) {
+            return;
+        }
+        SessionCounters counters = sample.counters();
+        if (counters == null) {
+            record(operation, sample.start(), rows, 0, 0);
+        } else {
+            record(operation, sample.start(), rows,
+                    counters.statements() - sample.statementsAtStart(), counters.managedEntities());
+        }
+    }
+
+    private void record(String operation, long start, long rows, long statements, int managedEntities) {
+        if (start == 0 || !enabled) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        operations.computeIfAbsent(operation, k -> new Histogram()).record(elapsed, rows, statements, managedEntities);
+        if (elapsed >= slowQueryThresholdNanos) {
+            log.warn("Slow repository call {} took {} ms, {} rows, {} statements",
+                    operation, elapsed / 1_000_000, rows, statements);
+        }
+    }
+
+    /**
+     * Returns the counters of the session behind the given EntityManager.
+     * They are attached on first use, so sessions are only listened to
+     * once metrics have been enabled.
+     */
+    static Supplier<SessionCounters> sessionCounters(EntityManager em) {
+        return new Supplier<>() {
+            private SessionCounters counters;
+
+            @Override
+            public SessionCounters get() {
+                if (counters == null) {
+                    Session session = em.unwrap(Session.class);
+                    counters = new SessionCounters(session);
+                    session.addEventListeners(counters);
+                }
+                return counters;
+            }
+        };
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Also turns Hibernate statistics on while enabled, unless they were already on. */
+    @Override
+    public synchronized void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (emf == null) {
+            return;
+        }
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        if (enabled && !statistics.isStatisticsEnabled()) {
+            statistics.setStatisticsEnabled(true);
+            statisticsEnabledByMetrics = true;
+        } else if (!enabled && statisticsEnabledByMetrics) {
+            statistics.setStatisticsEnabled(false);
+            statisticsEnabledByMetrics = false;
+        }
+    }
+
+    @Override
+    public long getSlowQueryThresholdMillis() {
+        return slowQueryThresholdNanos / 1_000_000;
+    }
+
+    @Override
+    public void setSlowQueryThresholdMillis(long thresholdMillis) {
+        if (thresholdMillis < 0) {
+            throw new IllegalArgumentException("Threshold cannot be negative.");
+        }
+        this.slowQueryThresholdNanos = thresholdMillis * 1_000_000;
+    }
+
+    @Override
+    public long getStatementCount() {
+        if (emf == null) {
+            return -1;
+        }
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        return statistics.isStatisticsEnabled() ? statistics.getPrepareStatementCount() : -1;
+    }
+
+    @Override
+    public int getMaxManagedEntityCount() {
+        int max = 0;
+        for (Histogram histogram : operations.values()) {
+            max = Math.max(max, (int) histogram.maxManagedEntities.get());
+        }
+        return max;
+    }
+
+    /** Returns a snapshot of all recorded operations, sorted by name. */
+    @Override
+    public Map<String, OperationSnapshot> getOperations() {
+        Map<String, OperationSnapshot> snapshot = new TreeMap<>();
+        operations.forEach((name, histogram) -> snapshot.put(name, histogram.snapshot()));
+        return snapshot;
+    }
+
+    @Override
+    public void reset() {
+        operations.clear();
+    }
+
+    /** Returns the number of rows in a repository result, for the rows counter. */
+    static long rowsOf(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        if (result instanceof Page<?> page) {
+            return page.getContent().size();
+        }
+        if (result instanceof KeysetPage<?> page) {
+            return page.getContent().size();
+        }
+        return 1;
+    }
+
+    /** Start time and statement count of a call being recorded. */
+    record Sample(long start, SessionCounters counters, long statementsAtStart) {
+    }
+
+    /**
+     * Counts the JDBC statements one session executes, a batch counting as one,
+     * and reads the size of its persistence context.
+     * Only used by the thread that owns the session.
+     */
+    static final class SessionCounters implements SessionEventListener {
+        private final transient Session session;
+        private long statements;
+
+        SessionCounters(Session session) {
+            this.session = session;
+        }
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            statements++;
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            statements++;
+        }
+
+        long statements() {
+            return statements;
+        }
+
+        int managedEntities() {
+            return session.isOpen() ? session.getStatistics().getEntityCount() : 0;
+        }
+    }
+
+    /**
+     * Log-linear latency histogram: four buckets per power of two of nanoseconds,
+     * so a percentile is reported as the upper bound of its bucket.
+     */
+    private static final class Histogram {
+        private static final int SUB_BUCKETS = 4;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAccumulator maxManagedEntities = new LongAccumulator(Math::max, 0);
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void record(long nanos, long rowCount, long statementCount, int managedEntityCount) {
+            buckets.incrementAndGet(bucketOf(nanos));
+            count.increment();
+            rows.add(rowCount);
+            statements.add(statementCount);
+            maxManagedEntities.accumulate(managedEntityCount);
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        OperationSnapshot snapshot() {
+            long n = count.sum();
+            long mean = n == 0 ? 0 : totalNanos.sum() / n;
+            return new OperationSnapshot(n, rows.sum(), statements.sum(), mean / 1000,
+                    percentile(0.50) / 1000, percentile(0.99) / 1000, maxNanos.get() / 1000,
+                    (int) maxManagedEntities.get());
+        }
+
+        private long percentile(double p) {
+            long total = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                total += buckets.get(i);
+            }
+            long rank = (long) Math.ceil(total * p);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= rank && seen > 0) {
+                    return upperBoundOf(i);
+                }
+            }
+            return 0;
+        }
+
+        private static int bucketOf(long nanos) {
+            if (nanos < SUB_BUCKETS) {
+                return (int) Math.max(nanos, 0);
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+            int sub = (int) (nanos >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+            return exponent * SUB_BUCKETS + sub;
+        }
+
+        private static long upperBoundOf(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = bucket / SUB_BUCKETS;
+            int sub = bucket % SUB_BUCKETS;
+            return (long) (SUB_BUCKETS + sub + 1) << (exponent - 2);
+        }
+    }
+}
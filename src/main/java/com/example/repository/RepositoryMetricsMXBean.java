@@ -0,0 +1,26 @@
+package com.example.repository;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link RepositoryMetrics}.
+ */
+public interface RepositoryMetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getSlowQueryThresholdMillis();
+
+    void setSlowQueryThresholdMillis(long thresholdMillis);
+
+    /** Statements prepared by Hibernate since statistics were enabled, or -1 if they are disabled. */
+    long getStatementCount();
+
+    /** Largest persistence context a recorded call left behind, in managed entities. */
+    int getMaxManagedEntityCount();
+
+    Map<String, OperationSnapshot> getOperations();
+
+    void reset();
+}
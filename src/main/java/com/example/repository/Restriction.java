@@ -0,0 +1,120 @@
+package com.example.repository;
+
+import com.example.exception.InvalidFieldException;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Predicate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Condition on one attribute for {@link CriteriaFindBuilder}. The value type is
+ * checked by the compiler against the metamodel attribute it is applied to.
+ *
+ * Example usage:
+ * import static com.example.repository.Restriction.*;
+ * builder.where(Employee_.salary, between(5000.0, 7000.0));
+ */
+public final class Restriction<Y> {
+    private final FindBuilder.Operator operator;
+    private final List<Object> values;
+
+    private Restriction(FindBuilder.Operator operator, List<Object> values) {
+        this.operator = operator;
+        this.values = values;
+    }
+
+    public static <Y> Restriction<Y> eq(Y value) {
+        return new Restriction<>(FindBuilder.Operator.EQ, List.of(requireValue(value)));
+    }
+
+    public static <Y extends Comparable<? super Y>> Restriction<Y> gt(Y value) {
+        return new Restriction<>(FindBuilder.Operator.GT, List.of(requireValue(value)));
+    }
+
+    public static <Y extends Comparable<? super Y>> Restriction<Y> ge(Y value) {
+        return new Restriction<>(FindBuilder.Operator.GE, List.of(requireValue(value)));
+    }
+
+    public static <Y extends Comparable<? super Y>> Restriction<Y> lt(Y value) {
+        return new Restriction<>(FindBuilder.Operator.LT, List.of(requireValue(value)));
+    }
+
+    public static <Y extends Comparable<? super Y>> Restriction<Y> le(Y value) {
+        return new Restriction<>(FindBuilder.Operator.LE, List.of(requireValue(value)));
+    }
+
+    /** Both bounds inclusive. */
+    public static <Y extends Comparable<? super Y>> Restriction<Y> between(Y low, Y high) {
+        return new Restriction<>(FindBuilder.Operator.BETWEEN, List.of(requireValue(low), requireValue(high)));
+    }
+
+    public static Restriction<String> like(String pattern) {
+        return new Restriction<>(FindBuilder.Operator.LIKE, List.of(requireValue(pattern)));
+    }
+
+    public static <Y> Restriction<Y> in(Collection<? extends Y> values) {
+        if (values == null || values.isEmpty()) {
+            throw new InvalidFieldException("IN values cannot be null or empty.");
+        }
+        return new Restriction<>(FindBuilder.Operator.IN, List.of(List.copyOf(values)));
+    }
+
+    public static <Y> Restriction<Y> isNull() {
+        return new Restriction<>(FindBuilder.Operator.IS_NULL, List.of());
+    }
+
+    public static <Y> Restriction<Y> isNotNull() {
+        return new Restriction<>(FindBuilder.Operator.IS_NOT_NULL, List.of());
+    }
+
+    FindBuilder.Operator operator() {
+        return operator;
+    }
+
+    /** Values in parameter order; an IN restriction has one value, the list of its elements. */
+    List<Object> values() {
+        return values;
+    }
+
+    /** Records the values of this restriction as parameters of the given attribute type. */
+    void collect(Class<?> type, CompiledQuery.Parameters parameters) {
+        for (Object value : values) {
+            parameters.record(operator == FindBuilder.Operator.LIKE ? String.class : type, value,
+                    operator == FindBuilder.Operator.IN);
+        }
+    }
+
+    /**
+     * Builds the predicate on path, declaring one parameter of the given type per value;
+     * an IN restriction declares one collection-valued parameter.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Predicate toPredicate(CriteriaBuilder cb, Expression<?> path, Class<?> type, CompiledQuery.Parameters parameters) {
+        Expression comparable = path;
+        return switch (operator) {
+            case EQ -> cb.equal(path, parameters.add(cb, type, values.get(0), false));
+            case GT -> cb.greaterThan(comparable, (Expression) parameters.add(cb, type, values.get(0), false));
+            case GE -> cb.greaterThanOrEqualTo(comparable, (Expression) parameters.add(cb, type, values.get(0), false));
+            case LT -> cb.lessThan(comparable, (Expression) parameters.add(cb, type, values.get(0), false));
+            case LE -> cb.lessThanOrEqualTo(comparable, (Expression) parameters.add(cb, type, values.get(0), false));
+            case BETWEEN -> cb.between(comparable,
+                    (Expression) parameters.add(cb, type, values.get(0), false),
+                    (Expression) parameters.add(cb, type, values.get(1), false));
+            case LIKE -> cb.like((Expression<String>) path, (ParameterExpression<String>) parameters.add(cb, String.class, values.get(0), false));
+            case IN -> path.in((Expression) parameters.add(cb, List.class, values.get(0), true));
+            case IS_NULL -> cb.isNull(path);
+            case IS_NOT_NULL -> cb.isNotNull(path);
+            case OR -> throw new IllegalStateException("OR is not a restriction.");
+        };
+    }
+
+    private static <V> V requireValue(V value) {
+        if (value == null) {
+            throw new InvalidFieldException("Value cannot be null; use isNull() instead.");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.repository;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Turns queries into lazily evaluated streams backed by a forward-only cursor.
+ * Each entity is detached once the stream has handed it on, so the
+ * persistence context does not grow with the size of the result.
+ * Streams must be closed (e.g. with try-with-resources) to release the cursor.
+ */
+final class ResultStreams {
+    static final int DEFAULT_FETCH_SIZE = 500;
+
+    private ResultStreams() {}
+
+    static <T> Stream<T> stream(EntityManager em, TypedQuery<T> query, int fetchSize) {
+        query.setHint(QueryHints.FETCH_SIZE, fetchSize);
+
+        @SuppressWarnings("unchecked")
+        Query<T> hibernateQuery = query.unwrap(Query.class);
+        ScrollableResults<T> results = hibernateQuery.scroll(ScrollMode.FORWARD_ONLY);
+
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (!results.next()) {
+                    return false;
+                }
+                T entity = results.get();
+                action.accept(entity);
+                em.detach(entity);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(results::close);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.repository;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How often a transaction is retried after an optimistic lock conflict, and how long
+ * to wait in between. The wait doubles after each attempt, with random jitter so that
+ * conflicting writers do not retry in lockstep.
+ *
+ * Example usage:
+ * repositories.inTransaction(repo -> ..., new RetryPolicy(5, Duration.ofMillis(20)));
+ */
+public record RetryPolicy(int maxAttempts, Duration initialBackoff) {
+
+    public static final RetryPolicy DEFAULT = new RetryPolicy(3, Duration.ofMillis(10));
+
+    /** Runs the work once, without retrying. */
+    public static final RetryPolicy NONE = new RetryPolicy(1, Duration.ZERO);
+
+    public RetryPolicy {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Max attempts must be greater than 0.");
+        }
+        if (initialBackoff == null || initialBackoff.isNegative()) {
+            throw new IllegalArgumentException("Backoff cannot be null or negative.");
+        }
+    }
+
+    /** Returns the wait in milliseconds before the given retry (1 for the first retry). */
+    long backoffMillis(int retry) {
+        long base = initialBackoff.toMillis() << Math.min(retry - 1, 16);
+        return base == 0 ? 0 : base / 2 + ThreadLocalRandom.current().nextLong(base / 2 + 1);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.repository;
+
+import java.util.List;
+
+/**
+ * Outcome of a parallel scan: rows and elapsed time per partition and in total.
+ */
+public record ScanReport(List<Partition> partitions, long rows, long elapsedNanos) {
+
+    public double rowsPerSecond() {
+        return perSecond(rows, elapsedNanos);
+    }
+
+    /** One id range [fromId, toId], both inclusive, scanned on its own thread and EntityManager. */
+    public record Partition(int index, Object fromId, Object toId, long rows, long elapsedNanos) {
+        public double rowsPerSecond() {
+            return perSecond(rows, elapsedNanos);
+        }
+    }
+
+    /** Progress of one partition, reported while the scan runs. */
+    public record Progress(int partition, long partitionRows, long totalRows, boolean done) {}
+
+    private static double perSecond(long rows, long nanos) {
+        return nanos == 0 ? 0 : rows * 1_000_000_000.0 / nanos;
+    }
+}
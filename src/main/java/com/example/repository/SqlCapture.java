@@ -0,0 +1,81 @@
+package com.example.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.*;
+
+/**
+ * Hibernate statement inspector that records every distinct SELECT statement
+ * sent to the database, for {@link ExplainDiagnostic}. SQL comments are switched
+ * on, so each statement is labelled with the JPQL it was generated from.
+ *
+ * Example usage:
+ * SqlCapture capture = new SqlCapture();
+ * EntityManagerFactory emf = JPAUtil.createEntityManagerFactory(capture.properties());
+ * // ... run the queries under test ...
+ * List<SqlCapture.Statement> statements = capture.getStatements();
+ */
+public class SqlCapture implements StatementInspector {
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final int maxSize;
+    // SQL without its comment -> label, in order of first execution
+    private final Map<String, String> statements = new LinkedHashMap<>();
+
+    public SqlCapture() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public SqlCapture(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Capture size must be greater than 0.");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /** Returns the factory properties that install this inspector. */
+    public Map<String, Object> properties() {
+        return Map.of(
+                "hibernate.session_factory.statement_inspector", this,
+                "hibernate.use_sql_comments", "true");
+    }
+
+    @Override
+    public String inspect(String sql) {
+        String label = null;
+        String statement = sql.trim();
+        if (statement.startsWith("/*")) {
+            int end = statement.indexOf("*/");
+            if (end > 0) {
+                label = statement.substring(2, end).trim();
+                statement = statement.substring(end + 2).trim();
+            }
+        }
+        if (statement.regionMatches(true, 0, "select", 0, 6)) {
+            synchronized (statements) {
+                if (statements.size() < maxSize) {
+                    statements.putIfAbsent(statement, label != null ? label : statement);
+                }
+            }
+        }
+        return sql;
+    }
+
+    /** Returns the distinct statements captured so far. */
+    public List<Statement> getStatements() {
+        synchronized (statements) {
+            List<Statement> result = new ArrayList<>(statements.size());
+            statements.forEach((sql, label) -> result.add(new Statement(label, sql)));
+            return result;
+        }
+    }
+
+    public void clear() {
+        synchronized (statements) {
+            statements.clear();
+        }
+    }
+
+    /** A captured statement and the JPQL (or query name) it was generated from. */
+    public record Statement(String label, String sql) {}
+}
@@ -0,0 +1,293 @@
+package com.example.repository;
+
+import com.example.exception.InvalidEntityException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffers saves and deletes and writes them in batches, for ingestion paths that
+ * would otherwise run one transaction per entity.
+ *
+ * Writes to the same entity (same class and id) are coalesced: only the last save
+ * or delete is written. Entities without an id are never coalesced. A flush writes
+ * all pending writes in one transaction, grouped by entity class with saveAll/deleteAll
+ * in the order in which the classes were first buffered, so buffer parents before
+ * their children.
+ *
+ * A flush starts when {@code flushSize} writes are pending and every {@code flushInterval}.
+ * When {@code capacity} writes are pending, save and delete block until a flush has
+ * drained the buffer. {@link #flush()} writes everything buffered so far before it returns.
+ *
+ * If a flush fails, its whole batch is rolled back and dropped. A failed background
+ * flush is logged and rethrown by the next call to flush() or close(); until then
+ * no background flush writes anything, and save and delete fail with an
+ * IllegalStateException instead of buffering writes that would follow the lost ones.
+ *
+ * Example usage:
+ * try (WriteBehindBuffer buffer = new WriteBehindBuffer(repositories, 10_000, 500, Duration.ofMillis(200))) {
+ *     events.forEach(event -> buffer.save(toEmployee(event)));
+ *     buffer.flush();
+ * }
+ */
+public class WriteBehindBuffer implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindBuffer.class);
+
+    private final RepositoryFactory factory;
+    private final EntityManagerFactory emf;
+    private final EntityMetadata.Registry entities;
+    private final RepositoryMetrics metrics;
+    private final int capacity;
+    private final int flushSize;
+
+    // Pending writes in arrival order; guarded by lock
+    private Map<Object, Write> pending = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+
+    // Held while a drained batch is written, so that batches are written in order
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private volatile RuntimeException failure;
+    private volatile boolean closed;
+
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+    private final LongAccumulator maxFlushNanos = new LongAccumulator(Math::max, 0);
+
+    public WriteBehindBuffer(RepositoryFactory factory, int capacity, int flushSize, Duration flushInterval) {
+        if (factory == null) {
+            throw new IllegalArgumentException("RepositoryFactory cannot be null.");
+        }
+        if (capacity <= 0 || flushSize <= 0 || flushSize > capacity) {
+            throw new IllegalArgumentException("Flush size must be greater than 0 and not exceed the capacity.");
+        }
+        if (flushInterval == null || flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("Flush interval must be greater than 0.");
+        }
+        this.factory = factory;
+        this.emf = factory.getEntityManagerFactory();
+        this.entities = EntityMetadata.forFactory(emf);
+        this.metrics = RepositoryMetrics.forFactory(emf);
+        this.capacity = capacity;
+        this.flushSize = flushSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "write-behind-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalNanos = flushInterval.toNanos();
+        scheduler.scheduleWithFixedDelay(this::flushInBackground, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Buffers a save; blocks while the buffer is full. */
+    public <T> void save(T entity) {
+        enqueue(entity, false);
+    }
+
+    /** Buffers a delete; blocks while the buffer is full. */
+    public <T> void delete(T entity) {
+        enqueue(entity, true);
+    }
+
+    /**
+     * Writes everything buffered so far, including a batch that a background flush
+     * is writing at the moment, and rethrows a failure of an earlier background flush.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            rethrowFailure();
+            try {
+                write(drain());
+            } catch (RuntimeException e) {
+                failedFlushes.increment();
+                throw e;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /** Flushes and stops the background flushes; further writes are rejected. */
+    @Override
+    public void close() {
+        closed = true;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /** Number of writes waiting to be flushed. */
+    public int getDepth() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public Stats getStats() {
+        return new Stats(getDepth(), capacity, flushes.sum(), written.sum(), coalesced.sum(), failedFlushes.sum(),
+                lastFlushNanos.get() / 1_000_000, maxFlushNanos.get() / 1_000_000);
+    }
+
+    private void enqueue(Object entity, boolean delete) {
+        if (entity == null) {
+            throw new InvalidEntityException("Entity cannot be null.");
+        }
+        RuntimeException flushFailure = failure;
+        if (flushFailure != null) {
+            throw new IllegalStateException("A write-behind flush failed; call flush() to see why.", flushFailure);
+        }
+        EntityMetadata<?> metadata = entities.lookup(entity.getClass());
+        if (metadata == null) {
+            throw new InvalidEntityException(entity.getClass().getSimpleName() + " is not a JPA entity.");
+        }
+        Object id = emf.getPersistenceUnitUtil().getIdentifier(entity);
+        // Entities without an id get a key of their own
+        Object key = id != null ? new EntityKey(metadata.javaType(), id) : new Object();
+        Write write = new Write(metadata.javaType(), entity, delete);
+
+        int size;
+        lock.lock();
+        try {
+            while (!closed && failure == null && pending.size() >= capacity && !pending.containsKey(key)) {
+                requestFlush();
+                notFull.awaitUninterruptibly();
+            }
+            if (closed) {
+                throw new IllegalStateException("Write-behind buffer is closed.");
+            }
+            if (failure != null && pending.size() >= capacity) {
+                throw new IllegalStateException("A write-behind flush failed; call flush() to see why.", failure);
+            }
+            if (pending.put(key, write) != null) {
+                coalesced.increment();
+            }
+            size = pending.size();
+        } finally {
+            lock.unlock();
+        }
+        if (size >= flushSize) {
+            requestFlush();
+        }
+    }
+
+    private void requestFlush() {
+        if (!closed && flushRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::flushInBackground);
+        }
+    }
+
+    private void flushInBackground() {
+        flushRequested.set(false);
+        flushLock.lock();
+        try {
+            // Nothing is written after a failed flush until flush() has rethrown it
+            if (failure != null) {
+                wakeUpWriters();
+                return;
+            }
+            write(drain());
+        } catch (RuntimeException e) {
+            failure = e;
+            failedFlushes.increment();
+            log.error("Write-behind flush failed; its batch was rolled back and dropped", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /** Takes all pending writes out of the buffer and wakes up blocked writers. */
+    private Collection<Write> drain() {
+        lock.lock();
+        try {
+            Collection<Write> batch = pending.values();
+            pending = new LinkedHashMap<>();
+            notFull.signalAll();
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Wakes up writers blocked on a full buffer, so they see a failure instead of waiting for a flush. */
+    private void wakeUpWriters() {
+        lock.lock();
+        try {
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Writes one drained batch in one transaction, grouped by entity class. */
+    private void write(Collection<Write> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long metricsStart = metrics.start();
+        Map<Class<?>, List<Write>> byType = new LinkedHashMap<>();
+        batch.forEach(write -> byType.computeIfAbsent(write.type(), t -> new ArrayList<>()).add(write));
+        try {
+            factory.runInTransaction(repo -> {
+                for (List<Write> writes : byType.values()) {
+                    List<Object> saves = new ArrayList<>(writes.size());
+                    List<Object> deletes = new ArrayList<>();
+                    writes.forEach(write -> (write.delete() ? deletes : saves).add(write.entity()));
+                    repo.saveAll(saves);
+                    repo.deleteAll(deletes);
+                }
+            });
+            written.add(batch.size());
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            flushes.increment();
+            lastFlushNanos.set(elapsed);
+            maxFlushNanos.accumulate(elapsed);
+            metrics.record("WriteBehindBuffer.flush", metricsStart, batch.size());
+        }
+    }
+
+    private void rethrowFailure() {
+        RuntimeException e = failure;
+        if (e != null) {
+            failure = null;
+            throw e;
+        }
+    }
+
+    private record EntityKey(Class<?> type, Object id) {}
+
+    private record Write(Class<?> type, Object entity, boolean delete) {}
+
+    public record Stats(int depth, int capacity, long flushes, long writtenEntities, long coalescedWrites,
+                        long failedFlushes, long lastFlushMillis, long maxFlushMillis) {}
+}
@@ -0,0 +1,161 @@
+package com.example.util;
+
+import com.example.model.Department;
+import com.example.model.Employee;
+import com.example.repository.RepositoryFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.*;
+
+/**
+ * Fills the database with generated employees spread over departments, for load
+ * and benchmark tests.
+ *
+ * The same seed always produces the same data. Departments are looked up or created
+ * once and then referenced by id. Employees are inserted through a StatelessSession,
+ * so there is no persistence context to grow or dirty-check, and the inserts are
+ * JDBC batched and committed every {@code chunkSize} rows.
+ *
+ * Example usage:
+ * BulkDataSeeder.Result result = new BulkDataSeeder(JPAUtil.getEntityManagerFactory())
+ *     .employees(10_000_000)
+ *     .departments(50)
+ *     .seed(42)
+ *     .run();
+ */
+public class BulkDataSeeder {
+    private static final Logger log = LoggerFactory.getLogger(BulkDataSeeder.class);
+
+    public static final int DEFAULT_CHUNK_SIZE = 10_000;
+
+    private static final int JDBC_BATCH_SIZE = 500;
+
+    private static final String[] FIRST_NAMES = {"Ali", "Ayşe", "Mehmet", "Elif", "Can", "Burcu", "Kemal", "Hülya"};
+    private static final String[] LAST_NAMES = {"Yılmaz", "Kara", "Demir", "Aydın", "Öztürk", "Tekin", "Kurt", "Arslan"};
+    private static final String[] EMAIL_DOMAINS = {"example.com", "mail.com", "company.com"};
+    private static final String[] DEPARTMENT_NAMES = {"IT", "Sales", "Finance", "HR", "Management"};
+
+    private final EntityManagerFactory emf;
+
+    private long employees = 10_000;
+    private int departments = DEPARTMENT_NAMES.length;
+    private long seed = 42;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    public BulkDataSeeder(EntityManagerFactory emf) {
+        if (emf == null) {
+            throw new IllegalArgumentException("EntityManagerFactory cannot be null.");
+        }
+        this.emf = emf;
+    }
+
+    public BulkDataSeeder employees(long employees) {
+        if (employees < 0) {
+            throw new IllegalArgumentException("Employee count cannot be negative.");
+        }
+        this.employees = employees;
+        return this;
+    }
+
+    public BulkDataSeeder departments(int departments) {
+        if (departments <= 0) {
+            throw new IllegalArgumentException("Department count must be greater than 0.");
+        }
+        this.departments = departments;
+        return this;
+    }
+
+    public BulkDataSeeder seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /** Rows per transaction. */
+    public BulkDataSeeder chunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be greater than 0.");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /** Name of the i-th department: the well known names first, then "Department i". */
+    public static String departmentName(int i) {
+        return i < DEPARTMENT_NAMES.length ? DEPARTMENT_NAMES[i] : "Department " + i;
+    }
+
+    public Result run() {
+        long start = System.nanoTime();
+        List<Department> departmentList = loadOrCreateDepartments();
+        SplittableRandom random = new SplittableRandom(seed);
+
+        StatelessSession session = emf.unwrap(SessionFactory.class).openStatelessSession();
+        // A StatelessSession does not pick up hibernate.jdbc.batch_size
+        session.setJdbcBatchSize(JDBC_BATCH_SIZE);
+        try {
+            for (long from = 0; from < employees; from += chunkSize) {
+                long to = Math.min(from + chunkSize, employees);
+                Transaction tx = session.beginTransaction();
+                try {
+                    for (long n = from; n < to; n++) {
+                        Employee employee = newEmployee(random, n);
+                        employee.setDepartment(departmentList.get(random.nextInt(departmentList.size())));
+                        session.insert(employee);
+                    }
+                    tx.commit();
+                } catch (RuntimeException e) {
+                    if (tx.isActive()) {
+                        tx.rollback();
+                    }
+                    throw e;
+                }
+                log.debug("Seeded {} of {} employees", to, employees);
+            }
+        } finally {
+            session.close();
+        }
+
+        Result result = new Result(employees, departmentList.size(), System.nanoTime() - start);
+        log.info("Seeded {} employees in {} departments in {} ms ({} rows/s)", result.employees(),
+                result.departments(), result.elapsedNanos() / 1_000_000, (long) result.rowsPerSecond());
+        return result;
+    }
+
+    /** Returns the departments in index order, creating the ones that do not exist yet. */
+    private List<Department> loadOrCreateDepartments() {
+        List<String> names = new ArrayList<>(departments);
+        for (int i = 0; i < departments; i++) {
+            names.add(departmentName(i));
+        }
+        return new RepositoryFactory(emf).inTransaction(repo -> {
+            Map<String, Department> existing = new HashMap<>();
+            repo.findBy(Department.class).in("name", names).getResult()
+                    .forEach(department -> existing.put(department.getName(), department));
+            List<Department> result = new ArrayList<>(names.size());
+            for (String name : names) {
+                Department department = existing.get(name);
+                result.add(department != null ? department : repo.save(new Department(name)));
+            }
+            return result;
+        });
+    }
+
+    private static Employee newEmployee(SplittableRandom random, long n) {
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String domain = EMAIL_DOMAINS[random.nextInt(EMAIL_DOMAINS.length)];
+        String email = (firstName + "." + lastName + "." + n + "@" + domain).toLowerCase(Locale.ROOT);
+        return new Employee(firstName, lastName, email, 4000.0 + random.nextInt(4000));
+    }
+
+    public record Result(long employees, int departments, long elapsedNanos) {
+        public double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : employees * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+}
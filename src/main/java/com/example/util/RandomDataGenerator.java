@@ -29,7 +29,7 @@ public class RandomDataGenerator {
     private static final Random RANDOM = new Random();
 
     /**
-     * Random bir Employee oluşturur ve DB’ye kaydeder.
+     * Random bir Employee oluşturur ve DB’ye kaydeder. Toplu veri için {@link BulkDataSeeder} kullanın.
      * Departman mevcutsa bulur, yoksa yeni oluşturur.
      */
     public static Employee createAndSaveRandomEmployee(GenericRepository repo) {
@@ -45,19 +45,14 @@ public class RandomDataGenerator {
         // Random departman seç
         String depName = DEPARTMENT_NAMES.get(RANDOM.nextInt(DEPARTMENT_NAMES.size()));
 
-        // DB’den departmanı bul ya da yarat
-        Department dep = repo.findOneBy(Department.class, "name", depName);
-        if (dep == null) {
-            dep = new Department(depName);
-            repo.save(dep);
-        }
+        // DB’den departmanı bul ya da yarat (findOneBy bulamayınca exception fırlatır)
+        List<Department> found = repo.findBy(Department.class, "name", depName);
+        Department dep = found.isEmpty() ? repo.save(new Department(depName)) : found.get(0);
 
         // Employee’yi departmana ekle
         dep.addEmployee(employee);
 
-        // Kaydet (cascade ile employee de kaydolur)
-        repo.save(dep);
-
-        return employee;
+        // Sadece employee kaydedilir, departman grafiği merge edilmez
+        return repo.save(employee);
     }
 }
@@ -0,0 +1,89 @@
+package com.example.repository;
+
+import com.example.model.Department;
+import com.example.model.Employee;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+public class AsyncGenericRepositoryImplTest {
+    // Simulated round trip to a remote database, added to every read below
+    private static final long LATENCY_MILLIS = 200;
+    private static final int CALLS = 8;
+
+    private EntityManagerFactory emf;
+    private RepositoryFactory repositories;
+
+    @Before
+    public void setUp() {
+        emf = TestDatabase.create("async-repository");
+        repositories = new RepositoryFactory(emf);
+        repositories.runInTransaction(repo -> {
+            repo.save(new Department("IT"));
+            for (int i = 0; i < 30; i++) {
+                repo.save(new Employee("Ali", "Yılmaz", "ali" + i + "@example.com", 5000.0 + i));
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Test
+    public void independentLookupsCanBeJoined() {
+        try (AsyncGenericRepositoryImpl async = new AsyncGenericRepositoryImpl(repositories, 4)) {
+            CompletableFuture<Department> department = async.findOneBy(Department.class, "name", "IT");
+            CompletableFuture<Long> count = async.count(Employee.class);
+            CompletableFuture<List<Employee>> page = async.findAllPaged(Employee.class, 1, 20);
+            CompletableFuture.allOf(department, count, page).join();
+
+            assertEquals("IT", department.join().getName());
+            assertEquals(30, count.join().longValue());
+            assertEquals(20, page.join().size());
+        }
+    }
+
+    @Test
+    public void fannedOutCallsOverlapUpToTheConcurrencyLimit() {
+        long parallel = fanOutMillis(CALLS);
+        long serial = fanOutMillis(1);
+
+        // All calls in flight at once take about one round trip, one permit serializes them
+        assertTrue("fan-out took " + parallel + " ms", parallel < 3 * LATENCY_MILLIS);
+        assertTrue("serial calls took " + serial + " ms", serial >= CALLS * LATENCY_MILLIS);
+    }
+
+    private long fanOutMillis(int maxConcurrency) {
+        try (AsyncGenericRepositoryImpl async = new AsyncGenericRepositoryImpl(repositories, maxConcurrency)) {
+            long start = System.nanoTime();
+            List<CompletableFuture<Long>> calls = new ArrayList<>();
+            for (int i = 0; i < CALLS; i++) {
+                calls.add(async.read(repo -> {
+                    long count = repo.count(Employee.class);
+                    sleep(LATENCY_MILLIS);
+                    return count;
+                }));
+            }
+            CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+            calls.forEach(call -> assertEquals(30, call.join().longValue()));
+            return (System.nanoTime() - start) / 1_000_000;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
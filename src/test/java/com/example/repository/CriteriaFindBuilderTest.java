@@ -0,0 +1,118 @@
+package com.example.repository;
+
+import com.example.exception.InvalidFieldException;
+import com.example.model.Department;
+import com.example.model.Department_;
+import com.example.model.Employee;
+import com.example.model.Employee_;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static com.example.repository.Restriction.*;
+import static org.junit.Assert.*;
+
+public class CriteriaFindBuilderTest {
+    private EntityManagerFactory emf;
+    private EntityManager em;
+
+    @Before
+    public void setUp() {
+        emf = TestDatabase.create("criteria");
+        new RepositoryFactory(emf).runInTransaction(repo -> {
+            Department it = repo.save(new Department("IT"));
+            Department sales = repo.save(new Department("Sales"));
+            repo.save(employee("Ali", "Yılmaz", 4000.0, it));
+            repo.save(employee("Ayşe", "Kara", 5000.0, it));
+            repo.save(employee("Mehmet", "Demir", 6000.0, sales));
+            repo.save(employee("Elif", "Yıldız", 7000.0, null));
+        });
+        em = emf.createEntityManager();
+    }
+
+    @After
+    public void tearDown() {
+        em.close();
+        emf.close();
+    }
+
+    @Test
+    public void comparisonOperators() {
+        assertEquals(List.of("Kara"), lastNames(builder().where(Employee_.salary, eq(5000.0))));
+        assertEquals(List.of("Demir", "Yıldız"), lastNames(builder().where(Employee_.salary, gt(5000.0))));
+        assertEquals(List.of("Kara", "Demir", "Yıldız"), lastNames(builder().where(Employee_.salary, ge(5000.0))));
+        assertEquals(List.of("Yılmaz"), lastNames(builder().where(Employee_.salary, lt(5000.0))));
+        assertEquals(List.of("Yılmaz", "Kara"), lastNames(builder().where(Employee_.salary, le(5000.0))));
+        assertEquals(List.of("Kara", "Demir"), lastNames(builder().where(Employee_.salary, between(5000.0, 6000.0))));
+    }
+
+    @Test
+    public void likeInAndNullOperators() {
+        assertEquals(List.of("Yılmaz", "Yıldız"), lastNames(builder().where(Employee_.lastName, like("Yıl%"))));
+        assertEquals(List.of("Yılmaz", "Demir"),
+                lastNames(builder().where(Employee_.firstName, in(List.of("Ali", "Mehmet", "Nobody")))));
+        assertEquals(List.of("Yıldız"), lastNames(builder().where(Employee_.department, isNull())));
+        assertEquals(List.of("Yılmaz", "Kara", "Demir"), lastNames(builder().where(Employee_.department, isNotNull())));
+    }
+
+    @Test
+    public void associationPathsSortingAndLimit() {
+        assertEquals(List.of("Kara", "Yılmaz"), lastNames(new CriteriaFindBuilder<>(em, Employee.class)
+                .where(Employee_.department, Department_.name, eq("IT"))
+                .orderBy(Employee_.salary, false)));
+        assertEquals(List.of("Yıldız", "Demir"), lastNames(new CriteriaFindBuilder<>(em, Employee.class)
+                .orderBy(Employee_.salary, false)
+                .limit(2)));
+    }
+
+    @Test
+    public void compiledQueriesRunWithNewValues() {
+        CompiledQuery<Employee> query = new CriteriaFindBuilder<>(em, Employee.class)
+                .where(Employee_.salary, ge(0.0))
+                .where(Employee_.firstName, in(List.of("Ali")))
+                .orderBy(Employee_.salary, true)
+                .compile();
+
+        assertEquals(2, query.getParameterCount());
+        assertEquals(1, query.getResult(em).size());
+        assertEquals(List.of("Demir", "Yıldız"), query.getResult(em, 6000.0, List.of("Ayşe", "Mehmet", "Elif"))
+                .stream().map(Employee::getLastName).toList());
+        assertThrows(InvalidFieldException.class, () -> query.getResult(em, "5000", List.of("Ali")));
+        assertThrows(InvalidFieldException.class, () -> query.getResult(em, 5000.0, List.of(1L)));
+        assertThrows(InvalidFieldException.class, () -> query.getResult(em, 5000.0));
+    }
+
+    @Test
+    public void shapesAreCachedOnceAndNothingIsRegisteredOnTheFactory() {
+        QueryPlanCache cache = QueryPlanCache.forFactory(emf);
+        cache.clear();
+        for (int limit = 1; limit <= 50; limit++) {
+            new CriteriaFindBuilder<>(em, Employee.class)
+                    .where(Employee_.salary, gt(1000.0 * limit))
+                    .orderBy(Employee_.salary, true)
+                    .limit(limit)
+                    .getResult();
+        }
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(49, cache.getHitCount());
+    }
+
+    private CriteriaFindBuilder<Employee> builder() {
+        return new CriteriaFindBuilder<>(em, Employee.class).orderBy(Employee_.salary, true);
+    }
+
+    private static List<String> lastNames(CriteriaFindBuilder<Employee> builder) {
+        return builder.getResult().stream().map(Employee::getLastName).toList();
+    }
+
+    private static Employee employee(String firstName, String lastName, double salary, Department department) {
+        Employee employee = new Employee(firstName, lastName, firstName.toLowerCase() + "@example.com", salary);
+        employee.setDepartment(department);
+        return employee;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.repository;
+
+import com.example.exception.InvalidEntityException;
+import com.example.exception.InvalidFieldException;
+import com.example.exception.InvalidIdException;
+import com.example.model.Department;
+import com.example.model.Employee;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.junit.Assert.*;
+
+public class EntityMetadataTest {
+    private EntityManagerFactory emf;
+    private EntityManager em;
+    private GenericRepositoryImpl repo;
+
+    @Before
+    public void setUp() {
+        emf = TestDatabase.create("entity-metadata");
+        em = emf.createEntityManager();
+        repo = new GenericRepositoryImpl(em);
+        em.getTransaction().begin();
+        Department it = repo.save(new Department("IT"));
+        Employee ali = new Employee("Ali", "Yılmaz", "ali@example.com", 5000.0);
+        ali.setDepartment(it);
+        repo.save(ali);
+        em.getTransaction().commit();
+    }
+
+    @After
+    public void tearDown() {
+        em.close();
+        emf.close();
+    }
+
+    @Test
+    public void acceptsAttributesAndDottedPaths() {
+        assertEquals(1, repo.findBy(Employee.class, "email", "ali@example.com").size());
+        assertEquals(1, repo.findBy(Employee.class).where("department.name", "IT").getResult().size());
+        assertEquals(1, repo.findAllSorted(Employee.class, "salary", true).size());
+    }
+
+    @Test
+    public void rejectsUnknownFieldsBeforeBuildingJpql() {
+        assertThrows(InvalidFieldException.class, () -> repo.findBy(Employee.class, "phone", "123"));
+        assertThrows(InvalidFieldException.class,
+                () -> repo.findBy(Employee.class, "email = 'x' or 1 = 1 or e.email", "x"));
+        assertThrows(InvalidFieldException.class,
+                () -> repo.findBy(Employee.class).where("department.budget", 1));
+    }
+
+    @Test
+    public void rejectsValuesAndOperationsTheFieldTypeDoesNotSupport() {
+        assertThrows(InvalidFieldException.class, () -> repo.findBy(Employee.class, "salary", "high"));
+        assertThrows(InvalidFieldException.class, () -> repo.findByLike(Employee.class, "salary", "5%"));
+        assertThrows(InvalidFieldException.class, () -> repo.findAllSorted(Department.class, "employees", true));
+    }
+
+    @Test
+    public void rejectsIdsOfTheWrongTypeAndNonEntities() {
+        assertThrows(InvalidIdException.class, () -> repo.findById(Employee.class, "1"));
+        assertThrows(InvalidEntityException.class, () -> repo.findAll(String.class));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.repository;
+
+import com.example.model.Employee;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ExplainDiagnosticTest {
+    private final SqlCapture capture = new SqlCapture();
+    private EntityManagerFactory emf;
+
+    @Before
+    public void setUp() {
+        emf = TestDatabase.create("explain", capture.properties());
+    }
+
+    @After
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Test
+    public void reportsOnlyTheLookupsWithoutAnIndex() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            GenericRepositoryImpl repo = new GenericRepositoryImpl(em);
+            capture.clear();
+            repo.findBy(Employee.class).where("email", "ali@example.com").getResult();
+            repo.findBy(Employee.class).where("firstName", "Ali").getResult();
+        } finally {
+            em.close();
+        }
+
+        List<ExplainDiagnostic.Plan> plans = new ExplainDiagnostic(emf).explain(capture);
+        assertEquals(2, plans.size());
+        assertFalse(plans.get(0).toString(), plans.get(0).hasTableScan());
+        assertEquals(List.of("EMPLOYEES"), plans.get(1).scannedTables());
+
+        List<ExplainDiagnostic.Plan> scans = new ExplainDiagnostic(emf).findTableScans(capture);
+        assertEquals(1, scans.size());
+        assertTrue(scans.get(0).label(), scans.get(0).label().contains("firstName"));
+    }
+}
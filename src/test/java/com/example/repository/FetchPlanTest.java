@@ -0,0 +1,84 @@
+package com.example.repository;
+
+import com.example.model.Car;
+import com.example.model.Department;
+import com.example.model.Employee;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Listing departments and printing them (toString touches employees and employeeCarMap)
+ * runs a constant number of statements with a fetch plan, whether there are 10 or 100
+ * departments, and without one a number that grows with the batches, not the rows.
+ */
+public class FetchPlanTest {
+
+    // hibernate.default_batch_fetch_size in persistence.xml
+    private static final int BATCH_FETCH_SIZE = 32;
+
+    @Test
+    public void fetchLoadsDepartmentsWithOneStatement() {
+        Function<GenericRepository, List<Department>> listing =
+                repo -> repo.findBy(Department.class).fetch("employees").fetch("employeeCarMap").getResult();
+        assertEquals(1, statementsToList(10, listing));
+        assertEquals(1, statementsToList(100, listing));
+    }
+
+    @Test
+    public void entityGraphLoadsDepartmentsWithOneStatement() {
+        Function<GenericRepository, List<Department>> listing =
+                repo -> repo.findBy(Department.class).withEntityGraph("Department.details").getResult();
+        assertEquals(1, statementsToList(10, listing));
+        assertEquals(1, statementsToList(100, listing));
+    }
+
+    @Test
+    public void batchFetchingLoadsCollectionsPerBatchNotPerDepartment() {
+        Function<GenericRepository, List<Department>> listing = repo -> repo.findAll(Department.class);
+        // The departments, then one IN select per collection role and batch of 32 owners
+        assertEquals(1 + 2, statementsToList(10, listing));
+        assertEquals(1 + 2 * ((100 + BATCH_FETCH_SIZE - 1) / BATCH_FETCH_SIZE), statementsToList(100, listing));
+    }
+
+    /** Seeds a new database with the given number of departments and returns the statements run to list and print them. */
+    private static long statementsToList(int departments, Function<GenericRepository, List<Department>> listing) {
+        EntityManagerFactory emf = TestDatabase.create("fetch-plan-" + departments, Map.of("hibernate.generate_statistics", true));
+        try {
+            new RepositoryFactory(emf).runInTransaction(repo -> {
+                for (int i = 0; i < departments; i++) {
+                    Department department = new Department("Department " + i);
+                    for (int j = 0; j < 3; j++) {
+                        Employee employee = new Employee("Ali", "Yılmaz", "ali" + i + "." + j + "@example.com", 5000.0);
+                        department.addEmployee(employee);
+                        department.assignCar(employee, new Car("34 ABC " + i + j));
+                    }
+                    repo.save(department);
+                }
+            });
+            emf.getCache().evictAll();
+            Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            EntityManager em = emf.createEntityManager();
+            try {
+                List<Department> result = listing.apply(new GenericRepositoryImpl(em));
+                assertEquals(departments, result.size());
+                result.forEach(Department::toString);
+            } finally {
+                em.close();
+            }
+            return statistics.getPrepareStatementCount();
+        } finally {
+            emf.close();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.repository;
+
+import com.example.exception.InvalidFieldException;
+import com.example.model.Department;
+import com.example.model.Employee;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Tuple;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class FindBuilderTest {
+    private EntityManagerFactory emf;
+    private EntityManager em;
+    private GenericRepository repo;
+    private Statistics statistics;
+
+    @Before
+    public void setUp() {
+        emf = TestDatabase.create("find-builder", Map.of("hibernate.generate_statistics", true));
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        new RepositoryFactory(emf).runInTransaction(repo -> {
+            Department it = repo.save(new Department("IT"));
+            Department sales = repo.save(new Department("Sales"));
+            repo.save(employee("Ali", "Yılmaz", 4000.0, it));
+            repo.save(employee("Ayşe", "Kara", 5000.0, it));
+            repo.save(employee("Can", "Öztürk", 6000.0, it));
+            repo.save(employee("Mehmet", "Demir", 6000.0, sales));
+            repo.save(employee("Elif", "Yıldız", 7000.0, sales));
+        });
+        em = emf.createEntityManager();
+        repo = new GenericRepositoryImpl(em);
+    }
+
+    @After
+    public void tearDown() {
+        em.close();
+        emf.close();
+    }
+
+    @Test
+    public void fullPagesCountTheTotal() {
+        statistics.clear();
+        Page<Employee> page = repo.findBy(Employee.class).orderBy("salary", true).page(1, 2).getPage();
+
+        assertEquals(List.of("Yılmaz", "Kara"), lastNames(page.getContent()));
+        assertEquals(5, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        assertTrue(page.hasNext());
+        assertFalse(page.hasPrevious());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void aPartialPageKnowsItsTotalWithoutACountQuery() {
+        statistics.clear();
+        Page<Employee> page = repo.findBy(Employee.class).orderBy("salary", true).page(3, 2).getPage();
+
+        assertEquals(List.of("Yıldız"), lastNames(page.getContent()));
+        assertEquals(5, page.getTotalElements());
+        assertFalse(page.hasNext());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void pagesPastTheEndAndFilteredPagesCountMatchingRows() {
+        Page<Employee> pastTheEnd = repo.findBy(Employee.class).orderBy("salary", true).page(4, 2).getPage();
+        assertTrue(pastTheEnd.getContent().isEmpty());
+        assertEquals(5, pastTheEnd.getTotalElements());
+
+        Page<Employee> filtered = repo.findBy(Employee.class).where("department.name", "IT").ge("salary", 5000.0)
+                .orderBy("salary", true).page(1, 1).getPage();
+        assertEquals(List.of("Kara"), lastNames(filtered.getContent()));
+        assertEquals(2, filtered.getTotalElements());
+        assertEquals(2, repo.findBy(Employee.class).where("department.name", "IT").ge("salary", 5000.0).count());
+        assertFalse(repo.findBy(Employee.class).gt("salary", 7000.0).exists());
+    }
+
+    @Test
+    public void tupleProjectionsSelectOnlyTheGivenFields() {
+        List<Tuple> rows = repo.findBy(Employee.class).where("department.name", "Sales").orderBy("salary", false)
+                .select("lastName", "department.name").getResult();
+
+        assertEquals(2, rows.size());
+        assertEquals("Yıldız", rows.get(0).get("lastName"));
+        assertEquals("Sales", rows.get(0).get("department_name"));
+        assertEquals("Demir", rows.get(1).get(0));
+        assertEquals(0, em.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    public void dtoProjectionsUseTheConstructorAndPagination() {
+        List<EmployeeRow> rows = repo.findBy(Employee.class).orderBy("salary", true).orderBy("lastName", true).page(2, 2)
+                .select("lastName", "salary").as(EmployeeRow.class);
+
+        assertEquals(List.of(new EmployeeRow("Demir", 6000.0), new EmployeeRow("Öztürk", 6000.0)), rows);
+        assertThrows(InvalidFieldException.class, () -> repo.findBy(Employee.class).select("lastName").as(null));
+    }
+
+    @Test
+    public void bulkUpdatesBumpTheVersionAndEvictCachedEntities() {
+        Employee before = repositories().withRepository(r -> r.findOneBy(Employee.class, "email", "ali@example.com"));
+        assertTrue(emf.getCache().contains(Employee.class, before.getId()));
+
+        em.getTransaction().begin();
+        int updated = repo.findBy(Employee.class).lt("salary", 6000.0).update(Map.of("salary", 5500.0));
+        em.getTransaction().commit();
+
+        assertEquals(2, updated);
+        Employee after = repositories().withRepository(r -> r.findById(Employee.class, before.getId()));
+        assertEquals(5500.0, after.getSalary(), 0.0);
+        assertEquals(before.getVersion() + 1, (long) after.getVersion());
+        assertEquals(2, repo.findBy(Employee.class).where("salary", 5500.0).count());
+    }
+
+    @Test
+    public void bulkDeletesEvictCachedCollections() {
+        Department sales = repositories().withRepository(r -> {
+            Department department = r.findOneBy(Department.class, "name", "Sales");
+            assertEquals(2, department.getEmployees().size());
+            return department;
+        });
+
+        em.getTransaction().begin();
+        int deleted = repo.findBy(Employee.class).ge("salary", 7000.0).delete();
+        em.getTransaction().commit();
+
+        assertEquals(1, deleted);
+        assertEquals(4, repo.count(Employee.class));
+        assertEquals(1, (int) repositories().withRepository(r ->
+                r.findById(Department.class, sales.getId()).getEmployees().size()));
+    }
+
+    @Test
+    public void aggregatesCoverTheMatchingRows() {
+        assertEquals(28000.0, repo.findBy(Employee.class).sum("salary"));
+        assertEquals(5500.0, repo.findBy(Employee.class).where("department.name", "IT").gt("salary", 4000.0).avg("salary"), 0.0);
+        assertEquals(Double.valueOf(4000.0), repo.findBy(Employee.class).min("salary", Double.class));
+        assertEquals("Öztürk", repo.findBy(Employee.class).max("lastName", String.class));
+        assertNull(repo.findBy(Employee.class).gt("salary", 7000.0).sum("salary"));
+    }
+
+    @Test
+    public void groupsAreAggregatedAndOrderedByKey() {
+        FindBuilder<Employee> employees = repo.findBy(Employee.class);
+        assertEquals(List.of(Map.entry("IT", 3L), Map.entry("Sales", 2L)),
+                List.copyOf(employees.groupBy("department.name", String.class).count().entrySet()));
+        assertEquals(Map.of("IT", 15000.0, "Sales", 13000.0), employees.groupBy("department.name", String.class).sum("salary"));
+        assertEquals(Map.of("IT", 5000.0, "Sales", 6500.0), employees.groupBy("department.name", String.class).avg("salary"));
+        assertEquals(Map.of("IT", 4000.0, "Sales", 6000.0),
+                employees.groupBy("department.name", String.class).min("salary", Double.class));
+        assertEquals(Map.of("IT", 2L, "Sales", 2L),
+                repo.findBy(Employee.class).ge("salary", 5000.0).groupBy("department.name", String.class).count());
+    }
+
+    @Test
+    public void havingFiltersGroupsByTheirAggregate() {
+        assertEquals(Map.of("IT", 3L), repo.findBy(Employee.class).groupBy("department.name", String.class)
+                .having(FindBuilder.Aggregate.COUNT, null, FindBuilder.Comparison.GE, 3).count());
+        assertEquals(Map.of("Sales", 6500.0), repo.findBy(Employee.class).groupBy("department.name", String.class)
+                .having(FindBuilder.Aggregate.AVG, "salary", FindBuilder.Comparison.GT, 6000).avg("salary"));
+        assertEquals(Map.of(6000.0, 2L), repo.findBy(Employee.class).groupBy("salary", Double.class)
+                .having(FindBuilder.Aggregate.COUNT, null, FindBuilder.Comparison.GT, 1)
+                .having(FindBuilder.Aggregate.MAX, "salary", FindBuilder.Comparison.LT, 7000.0).count());
+        assertThrows(InvalidFieldException.class, () -> repo.findBy(Employee.class).groupBy("department.name", String.class)
+                .having(FindBuilder.Aggregate.SUM, "lastName", FindBuilder.Comparison.GT, 1));
+    }
+
+    private RepositoryFactory repositories() {
+        return new RepositoryFactory(emf);
+    }
+
+    private static List<String> lastNames(List<Employee> employees) {
+        return employees.stream().map(Employee::getLastName).toList();
+    }
+
+    public record EmployeeRow(String lastName, Double salary) {}
+
+    private static Employee employee(String firstName, String lastName, double salary, Department department) {
+        Employee employee = new Employee(firstName, lastName, firstName.toLowerCase() + "@example.com", salary);
+        employee.setDepartment(department);
+        return employee;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.repository;
+
+import com.example.exception.EntityNotFoundException;
+import com.example.model.Department;
+import com.example.model.Employee;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GenericRepositoryImplTest {
+    private EntityManagerFactory emf;
+    private EntityManager em;
+    private GenericRepositoryImpl repo;
+
+    @Before
+    public void setUp() {
+        emf = TestDatabase.create("repository");
+        em = emf.createEntityManager();
+        repo = new GenericRepositoryImpl(em);
+        repo.setBatchSize(10);
+    }
+
+    @After
+    public void tearDown() {
+        em.close();
+        emf.close();
+    }
+
+    @Test
+    public void saveAllDetachesOnlyTheEntitiesItWrote() {
+        em.getTransaction().begin();
+        Department it = repo.save(new Department("IT"));
+        List<Employee> saved = repo.saveAll(employees(25));
+        em.getTransaction().commit();
+
+        assertTrue(em.contains(it));
+        assertFalse(em.contains(saved.get(0)));
+        assertTrue(em.contains(saved.get(24)));
+        assertEquals(25, repo.count(Employee.class));
+    }
+
+    @Test
+    public void deleteAllByIdAcceptsImmutableIdLists() {
+        em.getTransaction().begin();
+        Department it = repo.save(new Department("IT"));
+        List<Employee> saved = repo.saveAll(employees(3));
+        em.getTransaction().commit();
+
+        em.getTransaction().begin();
+        repo.deleteAllById(Employee.class, List.of(saved.get(0).getId(), saved.get(1).getId()));
+        em.getTransaction().commit();
+
+        assertTrue(em.contains(it));
+        assertEquals(1, repo.count(Employee.class));
+        assertTrue(repo.existsById(Employee.class, saved.get(2).getId()));
+    }
+
+    @Test
+    public void deleteAllKeepsUnrelatedEntitiesManaged() {
+        em.getTransaction().begin();
+        Department it = repo.save(new Department("IT"));
+        List<Employee> saved = repo.saveAll(employees(15));
+        em.getTransaction().commit();
+
+        em.getTransaction().begin();
+        repo.deleteAll(saved);
+        em.getTransaction().commit();
+
+        assertTrue(em.contains(it));
+        assertEquals(0, repo.count(Employee.class));
+    }
+
+    @Test
+    public void findAllSortedIgnoresCaseOnTextFields() {
+        em.getTransaction().begin();
+        repo.save(new Employee("Ali", "demir", "ali@example.com", 7000.0));
+        repo.save(new Employee("Ayşe", "Cengiz", "ayse@example.com", 5000.0));
+        repo.save(new Employee("Mehmet", "Efe", "mehmet@example.com", 6000.0));
+        em.getTransaction().commit();
+
+        assertEquals(List.of("Cengiz", "demir", "Efe"),
+                repo.findAllSorted(Employee.class, "lastName", true).stream().map(Employee::getLastName).toList());
+        assertEquals(List.of(7000.0, 6000.0, 5000.0),
+                repo.findAllSorted(Employee.class, "salary", false).stream().map(Employee::getSalary).toList());
+    }
+
+    @Test
+    public void readOnlyRepositoriesDoNotWriteBackChanges() {
+        em.getTransaction().begin();
+        Employee saved = repo.save(new Employee("Ali", "Yılmaz", "ali@example.com", 5000.0));
+        em.getTransaction().commit();
+        em.clear();
+
+        repo.setReadOnly(true);
+        assertTrue(repo.isReadOnly());
+        assertEquals(Boolean.TRUE, repo.getDefaultHints().get(QueryHints.READ_ONLY));
+        em.getTransaction().begin();
+        Employee loaded = repo.findAll(Employee.class).get(0);
+        assertTrue(em.unwrap(Session.class).isReadOnly(loaded));
+        loaded.setSalary(9000.0);
+        em.getTransaction().commit();
+        em.clear();
+
+        repo.setReadOnly(false);
+        assertTrue(repo.getDefaultHints().isEmpty());
+        assertEquals(5000.0, repo.findById(Employee.class, saved.getId()).getSalary(), 0.0);
+    }
+
+    @Test
+    public void readOnlyQueriesSkipTheAutoFlush() {
+        em.getTransaction().begin();
+        Employee saved = repo.save(new Employee("Ali", "Yılmaz", "ali@example.com", 5000.0));
+        em.flush();
+        saved.setLastName("Demir");
+
+        assertTrue(repo.findBy(Employee.class).where("lastName", "Demir").readOnly().getResult().isEmpty());
+        assertEquals(1, repo.findBy(Employee.class).where("lastName", "Demir").getResult().size());
+        em.getTransaction().commit();
+
+        em.clear();
+        Employee loaded = repo.findBy(Employee.class).where("lastName", "Demir").readOnly().getResult().get(0);
+        assertTrue(em.unwrap(Session.class).isReadOnly(loaded));
+    }
+
+    @Test
+    public void findAllByIdKeepsTheRequestedOrderAndReportsMissingIds() {
+        em.getTransaction().begin();
+        List<Employee> saved = repo.saveAll(employees(3));
+        em.getTransaction().commit();
+        em.clear();
+        emf.getCache().evictAll();
+        Long first = saved.get(0).getId(), second = saved.get(1).getId(), third = saved.get(2).getId();
+
+        IdLookupResult<Employee> result = repo.tryFindAllById(Employee.class, List.of(third, 999L, first, second, third));
+        assertEquals(List.of(third, first, second, third), result.getFound().stream().map(Employee::getId).toList());
+        assertEquals(List.of(999L), result.getMissingIds());
+        assertSame(result.getFound().get(0), result.getFound().get(3));
+
+        assertThrows(EntityNotFoundException.class, () -> repo.findAllById(Employee.class, List.of(first, 999L)));
+        assertTrue(repo.findAllById(Employee.class, List.of()).isEmpty());
+    }
+
+    @Test
+    public void findAllByIdServesManagedEntitiesWithoutAQuery() {
+        em.getTransaction().begin();
+        List<Employee> saved = repo.saveAll(employees(3));
+        em.getTransaction().commit();
+        em.clear();
+        emf.getCache().evictAll();
+        Employee managed = repo.findById(Employee.class, saved.get(0).getId());
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        List<Employee> found = repo.findAllById(Employee.class, saved.stream().map(Employee::getId).toList());
+        assertSame(managed, found.get(0));
+        // Only the two ids that are not managed are loaded, with one IN query
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getEntityLoadCount());
+
+        statistics.clear();
+        assertEquals(found, repo.findAllById(Employee.class, saved.stream().map(Employee::getId).toList()));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private static List<Employee> employees(int count) {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            employees.add(new Employee("Ali", "Yılmaz", "ali" + i + "@example.com", 5000.0 + i));
+        }
+        return employees;
+    }
+}
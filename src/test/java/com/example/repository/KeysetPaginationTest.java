@@ -0,0 +1,96 @@
+package com.example.repository;
+
+import com.example.model.Employee;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+
+public class KeysetPaginationTest {
+    private static final int PAGE_SIZE = 3;
+
+    private static EntityManagerFactory emf;
+    private static EntityManager em;
+    private static GenericRepository repo;
+
+    @BeforeClass
+    public static void seed() {
+        emf = TestDatabase.create("keyset");
+        em = emf.createEntityManager();
+        repo = new GenericRepositoryImpl(em);
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            // Every third salary is null, and salaries repeat so that the id tiebreaker matters
+            Double salary = i % 3 == 0 ? null : 4000.0 + (i % 4) * 500;
+            employees.add(new Employee("Ali", "Yılmaz", "ali" + i + "@example.com", salary));
+        }
+        em.getTransaction().begin();
+        repo.saveAll(employees);
+        em.getTransaction().commit();
+        em.clear();
+    }
+
+    @AfterClass
+    public static void close() {
+        em.close();
+        emf.close();
+    }
+
+    @Test
+    public void ascendingPagesIncludeNullSortValuesLast() {
+        List<Long> expected = ids(repo.findAll(Employee.class).stream()
+                .sorted(Comparator.comparing(Employee::getSalary, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(Employee::getId))
+                .toList());
+
+        assertEquals(expected, forward(builder -> builder.orderBy("salary", true)));
+    }
+
+    @Test
+    public void descendingPagesIncludeNullSortValuesFirst() {
+        List<Long> ascending = forward(builder -> builder.orderBy("salary", true));
+        List<Long> descending = forward(builder -> builder.orderBy("salary", false));
+        Collections.reverse(ascending);
+        assertEquals(ascending, descending);
+    }
+
+    @Test
+    public void backwardPagesReturnThePagesBefore() {
+        List<KeysetPage<Employee>> pages = new ArrayList<>();
+        KeysetPage<Employee> page = repo.findBy(Employee.class).orderBy("salary", true).getKeysetPage(PAGE_SIZE);
+        pages.add(page);
+        while (page.getNextCursor() != null) {
+            page = repo.findBy(Employee.class).orderBy("salary", true).after(page.getNextCursor()).getKeysetPage(PAGE_SIZE);
+            pages.add(page);
+        }
+        for (int i = pages.size() - 1; i > 0; i--) {
+            KeysetPage<Employee> previous = repo.findBy(Employee.class).orderBy("salary", true)
+                    .before(pages.get(i).getPreviousCursor()).getKeysetPage(PAGE_SIZE);
+            assertEquals(ids(pages.get(i - 1).getContent()), ids(previous.getContent()));
+        }
+    }
+
+    private static List<Long> forward(Function<FindBuilder<Employee>, FindBuilder<Employee>> sort) {
+        List<Long> ids = new ArrayList<>();
+        KeysetPage<Employee> page = sort.apply(repo.findBy(Employee.class)).getKeysetPage(PAGE_SIZE);
+        ids.addAll(ids(page.getContent()));
+        while (page.getNextCursor() != null) {
+            page = sort.apply(repo.findBy(Employee.class)).after(page.getNextCursor()).getKeysetPage(PAGE_SIZE);
+            ids.addAll(ids(page.getContent()));
+        }
+        return ids;
+    }
+
+    private static List<Long> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getId).toList();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.repository;
+
+import com.example.exception.OptimisticLockConflictException;
+import com.example.model.Employee;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class OptimisticLockingTest {
+    private EntityManagerFactory emf;
+    private RepositoryFactory repositories;
+    private Long id;
+
+    @Before
+    public void setUp() {
+        emf = TestDatabase.create("optimistic-locking");
+        repositories = new RepositoryFactory(emf);
+        id = repositories.inTransaction(repo ->
+                repo.save(new Employee("Ali", "Yılmaz", "ali@example.com", 5000.0)).getId());
+    }
+
+    @After
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Test
+    public void savingAStaleCopyFailsInsteadOfOverwriting() {
+        Employee stale = repositories.withRepository(repo -> repo.findById(Employee.class, id));
+        repositories.update(Employee.class, id, employee -> employee.setSalary(6000.0));
+
+        stale.setSalary(7000.0);
+        assertThrows(OptimisticLockConflictException.class,
+                () -> repositories.runInTransaction(repo -> repo.save(stale)));
+        assertEquals(6000.0, salary(), 0);
+    }
+
+    @Test
+    public void savingACurrentCopyMergesItAndBumpsTheVersion() {
+        Employee current = repositories.withRepository(repo -> repo.findById(Employee.class, id));
+        current.setSalary(6500.0);
+        Employee saved = repositories.inTransaction(repo -> repo.save(current));
+
+        assertEquals(current.getVersion() + 1, saved.getVersion().longValue());
+        assertEquals(6500.0, salary(), 0);
+    }
+
+    @Test
+    public void conflictsAreRetriedInANewTransaction() {
+        AtomicInteger attempts = new AtomicInteger();
+        repositories.inTransaction(repo -> repo.update(Employee.class, id, employee -> {
+            if (attempts.incrementAndGet() == 1) {
+                // Another writer commits between our read and our flush
+                repositories.update(Employee.class, id, other -> other.setSalary(6000.0));
+            }
+            employee.setSalary(employee.getSalary() + 100);
+        }), new RetryPolicy(3, Duration.ofMillis(1)));
+
+        assertEquals(2, attempts.get());
+        assertEquals(6100.0, salary(), 0);
+    }
+
+    @Test
+    public void conflictsAreNotRetriedWithoutAPolicy() {
+        assertThrows(OptimisticLockConflictException.class, () ->
+                repositories.inTransaction(repo -> repo.update(Employee.class, id, employee -> {
+                    repositories.update(Employee.class, id, other -> other.setSalary(6000.0));
+                    employee.setSalary(7000.0);
+                }), RetryPolicy.NONE));
+        assertEquals(6000.0, salary(), 0);
+    }
+
+    private double salary() {
+        return repositories.withRepository(repo -> repo.findById(Employee.class, id)).getSalary();
+    }
+}
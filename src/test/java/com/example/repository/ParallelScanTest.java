@@ -0,0 +1,82 @@
+package com.example.repository;
+
+import com.example.model.Employee;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+
+public class ParallelScanTest {
+    private static final int ROWS = 1000;
+
+    private EntityManagerFactory emf;
+    private EntityManager em;
+    private GenericRepositoryImpl repo;
+
+    @Before
+    public void setUp() {
+        emf = TestDatabase.create("parallel-scan");
+        em = emf.createEntityManager();
+        repo = new GenericRepositoryImpl(em);
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            employees.add(new Employee("Ali", "Yılmaz", "ali" + i + "@example.com", 1000.0 + i));
+        }
+        em.getTransaction().begin();
+        repo.saveAll(employees);
+        em.getTransaction().commit();
+    }
+
+    @After
+    public void tearDown() {
+        em.close();
+        emf.close();
+    }
+
+    @Test
+    public void everyRowIsProcessedOnce() {
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        List<ScanReport.Progress> done = new CopyOnWriteArrayList<>();
+        ScanReport report = repo.findBy(Employee.class).parallelScan(4, employee -> assertTrue(seen.add(employee.getId())),
+                progress -> {
+                    if (progress.done()) {
+                        done.add(progress);
+                    }
+                });
+
+        assertEquals(ROWS, seen.size());
+        assertEquals(ROWS, report.rows());
+        assertEquals(4, report.partitions().size());
+        assertEquals(ROWS, report.partitions().stream().mapToLong(ScanReport.Partition::rows).sum());
+        assertEquals(4, done.size());
+    }
+
+    @Test
+    public void conditionsOfTheBuilderApply() {
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        ScanReport report = repo.findBy(Employee.class).ge("salary", 1900.0)
+                .parallelScan(3, employee -> seen.add(employee.getId()));
+
+        assertEquals(100, report.rows());
+        assertEquals(100, seen.size());
+    }
+
+    @Test
+    public void aFailingActionStopsTheScanAndIsRethrown() {
+        IllegalStateException failure = new IllegalStateException("boom");
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> repo.parallelScan(Employee.class, 4, employee -> {
+                    throw failure;
+                }));
+        assertSame(failure, thrown);
+    }
+}
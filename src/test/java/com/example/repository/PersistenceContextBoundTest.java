@@ -0,0 +1,128 @@
+package com.example.repository;
+
+import com.example.model.Department;
+import com.example.model.Employee;
+import org.hibernate.Session;
+import org.hibernate.SessionEventListener;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PersistenceContextBoundTest {
+    private static final int EMPLOYEES = 20;
+
+    private EntityManagerFactory emf;
+    private EntityManager em;
+    private GenericRepositoryImpl repo;
+
+    @Before
+    public void setUp() {
+        emf = TestDatabase.create("context-bound");
+        RepositoryFactory repositories = new RepositoryFactory(emf);
+        repositories.runInTransaction(repo -> {
+            Department it = repo.save(new Department("IT"));
+            Department sales = repo.save(new Department("Sales"));
+            List<Employee> employees = new ArrayList<>();
+            for (int i = 0; i < EMPLOYEES; i++) {
+                Employee employee = new Employee("Ali", "Yılmaz", "ali" + i + "@example.com", 5000.0 + i);
+                employee.setDepartment(i % 2 == 0 ? it : sales);
+                employees.add(employee);
+            }
+            repo.saveAll(employees);
+        });
+        emf.getCache().evictAll();
+        em = emf.createEntityManager();
+        repo = new GenericRepositoryImpl(em);
+    }
+
+    @After
+    public void tearDown() {
+        em.close();
+        emf.close();
+    }
+
+    @Test
+    public void readsOutsideATransactionClearAContextWithLazyDepartments() {
+        repo.setMaxManagedEntities(3);
+
+        List<Employee> all = repo.findAll(Employee.class);
+        assertEquals(EMPLOYEES, all.size());
+        repo.findBy(Employee.class, "lastName", "Yılmaz");
+        assertEquals(1, repo.getAutoClearCount());
+        repo.findBy(Employee.class).where("department.name", "IT").getResult();
+        assertEquals(2, repo.getAutoClearCount());
+        assertFalse(em.contains(all.get(0)));
+    }
+
+    @Test
+    public void clearPerOperationStartsEveryCallWithAnEmptyContext() {
+        repo.setClearPerOperation(true);
+
+        List<Employee> all = repo.findAll(Employee.class);
+        assertEquals(EMPLOYEES, repo.getManagedEntityCount());
+        Employee first = repo.findById(Employee.class, all.get(0).getId());
+        assertEquals(1, repo.getManagedEntityCount());
+        assertFalse(em.contains(all.get(1)));
+        assertEquals(EMPLOYEES, repo.count(Employee.class));
+        assertFalse(em.contains(first));
+        assertEquals(3, repo.getAutoClearCount());
+    }
+
+    @Test
+    public void writesOutsideATransactionAreKeptUntilATransactionFlushesThem() {
+        repo.setMaxManagedEntities(3);
+        repo.findAll(Employee.class);
+        Department hr = repo.save(new Department("HR"));
+        long clears = repo.getAutoClearCount();
+
+        repo.findAll(Employee.class);
+        repo.count(Employee.class);
+        assertEquals(clears, repo.getAutoClearCount());
+        assertTrue(em.contains(hr));
+
+        em.getTransaction().begin();
+        repo.count(Department.class);
+        em.getTransaction().commit();
+        assertEquals(clears + 1, repo.getAutoClearCount());
+        assertFalse(em.contains(hr));
+        assertEquals(1, repo.findBy(Department.class, "name", "HR").size());
+    }
+
+    @Test
+    public void flushesCoverAtMostTheBoundedContext() {
+        assertEquals(200, largestFlushWhileSaving(0, 200));
+        assertTrue(largestFlushWhileSaving(25, 200) <= 26);
+    }
+
+    /** Saves employees one by one, querying after each so that Hibernate auto-flushes, and returns the largest flush. */
+    private int largestFlushWhileSaving(int maxManagedEntities, int count) {
+        repo.clear();
+        repo.setMaxManagedEntities(maxManagedEntities);
+        int[] largestFlush = {0};
+        em.unwrap(Session.class).addEventListeners(new SessionEventListener() {
+            @Override
+            public void flushEnd(int numberOfEntities, int numberOfCollections) {
+                largestFlush[0] = Math.max(largestFlush[0], numberOfEntities);
+            }
+
+            @Override
+            public void partialFlushEnd(int numberOfEntities, int numberOfCollections) {
+                largestFlush[0] = Math.max(largestFlush[0], numberOfEntities);
+            }
+        });
+        em.getTransaction().begin();
+        for (int i = 0; i < count; i++) {
+            repo.save(new Employee("Ayşe", "Kara", "ayse" + i + "@example.com", 4000.0));
+            repo.findBy(Employee.class, "email", "ayse" + i + "@example.com");
+        }
+        em.getTransaction().rollback();
+        return largestFlush[0];
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.repository;
+
+import com.example.exception.InvalidEntityException;
+import com.example.model.Car;
+import com.example.model.Department;
+import com.example.model.Employee;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+public class QueryCacheTest {
+    private EntityManagerFactory emf;
+    private Statistics statistics;
+
+    @Before
+    public void setUp() {
+        emf = TestDatabase.create("query-cache", Map.of("hibernate.generate_statistics", true));
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        new RepositoryFactory(emf).runInTransaction(repo -> {
+            repo.save(new Department("IT"));
+            repo.save(new Employee("Ali", "Yılmaz", "ali@example.com", 5000.0));
+        });
+        statistics.clear();
+    }
+
+    @After
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Test
+    public void findByDoesNotUseTheQueryCacheByDefault() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            GenericRepositoryImpl repo = new GenericRepositoryImpl(em);
+            repo.findOneBy(Employee.class, "email", "ali@example.com");
+            repo.findOneBy(Employee.class, "email", "ali@example.com");
+        } finally {
+            em.close();
+        }
+        assertEquals(0, statistics.getQueryCachePutCount());
+        assertEquals(0, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    public void departmentNameLookupsHitTheQueryCacheWithoutSetup() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            GenericRepository repo = new GenericRepositoryImpl(em);
+            repo.findOneBy(Department.class, "name", "IT");
+            em.clear();
+            repo.findOneBy(Department.class, "name", "IT");
+        } finally {
+            em.close();
+        }
+        assertEquals(1, statistics.getQueryCachePutCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    public void theQueryCachePolicyCanBeOverriddenPerEntity() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            GenericRepositoryImpl repo = new GenericRepositoryImpl(em);
+            repo.setQueryCacheEnabled(Employee.class, true);
+            repo.setQueryCacheEnabled(Department.class, false);
+            repo.findOneBy(Employee.class, "email", "ali@example.com");
+            repo.findOneBy(Employee.class, "email", "ali@example.com");
+            repo.findOneBy(Department.class, "name", "IT");
+            repo.findOneBy(Department.class, "name", "IT");
+        } finally {
+            em.close();
+        }
+        assertEquals(1, statistics.getQueryCachePutCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    public void theQueryCachePolicyIsOnlyForEntities() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            GenericRepositoryImpl repo = new GenericRepositoryImpl(em);
+            assertThrows(InvalidEntityException.class, () -> repo.setQueryCacheEnabled(Car.class, true));
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    public void cacheableQueriesAreServedFromTheQueryCache() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            GenericRepository repo = new GenericRepositoryImpl(em);
+            repo.findBy(Employee.class).where("lastName", "Yılmaz").cacheable().getResult();
+            repo.findBy(Employee.class).where("lastName", "Yılmaz").cacheable().getResult();
+        } finally {
+            em.close();
+        }
+        assertEquals(1, statistics.getQueryCachePutCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.repository;
+
+import com.example.model.Employee;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class QueryPlanCacheTest {
+
+    @Test
+    public void buildsTheJpqlOfAShapeOnce() {
+        QueryPlanCache cache = new QueryPlanCache(4);
+        AtomicInteger built = new AtomicInteger();
+        QueryPlanCache.Key key = QueryPlanCache.Key.of(Employee.class, "findBy", "email");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("from Employee e where e.email = :val", cache.jpql(key, () -> {
+                built.incrementAndGet();
+                return "from Employee e where e.email = :val";
+            }));
+        }
+        assertEquals(1, built.get());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedShape() {
+        QueryPlanCache cache = new QueryPlanCache(2);
+        QueryPlanCache.Key first = QueryPlanCache.Key.of(Employee.class, "findBy", "email");
+        QueryPlanCache.Key second = QueryPlanCache.Key.of(Employee.class, "findBy", "lastName");
+        QueryPlanCache.Key third = QueryPlanCache.Key.of(Employee.class, "findBy", "firstName");
+
+        cache.jpql(first, () -> "first");
+        cache.jpql(second, () -> "second");
+        cache.jpql(first, () -> "first");
+        cache.jpql(third, () -> "third");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals("first", cache.jpql(first, () -> "rebuilt"));
+        assertEquals("rebuilt", cache.jpql(second, () -> "rebuilt"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.repository;
+
+import com.example.model.Employee;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RepositoryMetricsTest {
+    private EntityManagerFactory emf;
+    private RepositoryMetrics metrics;
+    private Object id;
+
+    @Before
+    public void setUp() {
+        emf = TestDatabase.create("repository-metrics");
+        metrics = new RepositoryMetrics(emf);
+        id = new RepositoryFactory(emf).inTransaction(repo ->
+                repo.save(new Employee("Ali", "Yılmaz", "ali@example.com", 5000.0)).getId());
+    }
+
+    @After
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Test
+    public void hibernateStatisticsAreOnlyOnWhileEnabled() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        assertFalse(statistics.isStatisticsEnabled());
+        assertEquals(-1, metrics.getStatementCount());
+
+        metrics.setEnabled(true);
+        assertTrue(statistics.isStatisticsEnabled());
+
+        metrics.setEnabled(false);
+        assertFalse(statistics.isStatisticsEnabled());
+    }
+
+    @Test
+    public void disabledMetricsRecordNothing() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            GenericRepository repo = new InstrumentedRepository(new GenericRepositoryImpl(em), metrics);
+            repo.findById(Employee.class, id);
+            repo.findBy(Employee.class).where("lastName", "Yılmaz").getResult();
+        } finally {
+            em.close();
+        }
+        assertTrue(metrics.getOperations().isEmpty());
+    }
+
+    @Test
+    public void statementsAreCountedPerOperationAndShape() {
+        metrics.setEnabled(true);
+        emf.getCache().evictAll();
+        EntityManager em = emf.createEntityManager();
+        try {
+            GenericRepository repo = new InstrumentedRepository(new GenericRepositoryImpl(em), metrics);
+            repo.findById(Employee.class, id);
+            repo.findById(Employee.class, id);
+            repo.findAll(Employee.class);
+            FindBuilder<Employee> builder = repo.findBy(Employee.class).where("lastName", "Yılmaz");
+            builder.getResult();
+            builder.count();
+        } finally {
+            em.close();
+        }
+
+        Map<String, OperationSnapshot> operations = metrics.getOperations();
+        // The second findById is served by the persistence context
+        assertEquals(2, operations.get("findById:Employee").getCount());
+        assertEquals(1, operations.get("findById:Employee").getStatements());
+        assertEquals(1, operations.get("findAll:Employee").getStatements());
+        assertEquals(1, operations.get("Employee.find[eq:lastName]").getStatements());
+        assertEquals(1, operations.get("Employee.count[eq:lastName]").getStatements());
+        assertEquals(1, operations.get("findAll:Employee").getMaxManagedEntities());
+        assertEquals(1, metrics.getMaxManagedEntityCount());
+    }
+}
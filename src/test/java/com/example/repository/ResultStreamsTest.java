@@ -0,0 +1,81 @@
+package com.example.repository;
+
+import com.example.config.JPAUtil;
+import com.example.model.Employee;
+import com.example.util.BulkDataSeeder;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Streams a table with a small test heap (surefire runs with -Xmx64m) and checks that
+ * the persistence context stays flat. The default 20,000 rows keep the unit run short;
+ * from about 100,000 rows the table no longer fits in the heap, so loading it into a
+ * list with findAll() fails with an OutOfMemoryError. Run that case with
+ * mvn test -Dtest=ResultStreamsTest -DresultStreams.employees=200000
+ */
+public class ResultStreamsTest {
+    private static final int EMPLOYEES = Integer.getInteger("resultStreams.employees", 20_000);
+
+    private static EntityManagerFactory emf;
+
+    @BeforeClass
+    public static void seed() {
+        // File database with a small page cache, so that H2 itself does not hold the table in memory
+        emf = JPAUtil.createEntityManagerFactory(Map.of(
+                "jakarta.persistence.jdbc.url",
+                "jdbc:h2:file:./target/h2/result-streams;CACHE_SIZE=8192",
+                "hibernate.hbm2ddl.auto", "create"));
+        new BulkDataSeeder(emf).employees(EMPLOYEES).departments(10).run();
+    }
+
+    @AfterClass
+    public static void close() {
+        emf.close();
+    }
+
+    @Test
+    public void streamAllReadsEveryRowWithAFlatPersistenceContext() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            GenericRepositoryImpl repo = new GenericRepositoryImpl(em);
+            AtomicLong rows = new AtomicLong();
+            AtomicLong maxManaged = new AtomicLong();
+            try (Stream<Employee> employees = repo.streamAll(Employee.class)) {
+                employees.forEach(employee -> {
+                    rows.incrementAndGet();
+                    maxManaged.accumulateAndGet(repo.getManagedEntityCount(), Math::max);
+                });
+            }
+            assertEquals(EMPLOYEES, rows.get());
+            assertTrue("managed entities: " + maxManaged.get(), maxManaged.get() <= 1);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    public void findBuilderStreamFiltersInTheDatabase() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            GenericRepository repo = new GenericRepositoryImpl(em);
+            double total;
+            try (Stream<Employee> employees = repo.findBy(Employee.class).ge("salary", 6000.0).fetchSize(1000).stream()) {
+                total = employees.mapToDouble(Employee::getSalary).sum();
+            }
+            Double expected = repo.findBy(Employee.class).ge("salary", 6000.0).sum("salary").doubleValue();
+            assertEquals(expected, total, 0.001);
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.repository;
+
+import com.example.config.JPAUtil;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Factories for the tests of all packages, each on its own in-memory H2 database with a fresh schema. */
+public final class TestDatabase {
+
+    private TestDatabase() {}
+
+    public static EntityManagerFactory create(String name) {
+        return create(name, Map.of());
+    }
+
+    public static EntityManagerFactory create(String name, Map<String, ?> overrides) {
+        Map<String, Object> properties = new HashMap<>(overrides);
+        properties.put("jakarta.persistence.jdbc.url", "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        properties.put("hibernate.hbm2ddl.auto", "create-drop");
+        return JPAUtil.createEntityManagerFactory(properties);
+    }
+}
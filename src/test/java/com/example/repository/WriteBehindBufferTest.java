@@ -0,0 +1,229 @@
+package com.example.repository;
+
+import com.example.model.Department;
+import com.example.model.Employee;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+public class WriteBehindBufferTest {
+    private EntityManagerFactory emf;
+    private RepositoryFactory repositories;
+
+    @Before
+    public void setUp() {
+        emf = TestDatabase.create("write-behind");
+        repositories = new RepositoryFactory(emf);
+    }
+
+    @After
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Test
+    public void aFailedFlushRollsBackTheWholeBatch() {
+        WriteBehindBuffer buffer = new WriteBehindBuffer(repositories, 100, 100, Duration.ofHours(1));
+        try {
+            buffer.save(new Employee("Ali", "Yılmaz", "ali@example.com", 5000.0));
+            buffer.save(new Department(null));
+            try {
+                buffer.flush();
+                fail("Flush with an invalid department should fail");
+            } catch (RuntimeException expected) {
+                // the employee group was written before the department group failed
+            }
+            assertEquals(0, count(Employee.class));
+            assertEquals(1, buffer.getStats().failedFlushes());
+            assertEquals(0, buffer.getStats().writtenEntities());
+        } finally {
+            buffer.close();
+        }
+    }
+
+    @Test
+    public void writesAreRejectedUntilABackgroundFailureIsSeen() throws InterruptedException {
+        WriteBehindBuffer buffer = new WriteBehindBuffer(repositories, 100, 1, Duration.ofHours(1));
+        try {
+            buffer.save(new Department(null));
+            // failedFlushes is counted after the failure is kept
+            while (buffer.getStats().failedFlushes() == 0) {
+                Thread.sleep(10);
+            }
+            assertThrows(IllegalStateException.class, () -> buffer.save(new Department("IT")));
+            assertThrows(RuntimeException.class, buffer::flush);
+
+            buffer.save(new Department("IT"));
+            buffer.flush();
+            assertEquals(1, count(Department.class));
+        } finally {
+            buffer.close();
+        }
+    }
+
+    @Test
+    public void repeatedWritesToTheSameEntityAreCoalesced() {
+        Department department = repositories.inTransaction(repo -> repo.save(new Department("IT")));
+        WriteBehindBuffer buffer = new WriteBehindBuffer(repositories, 100, 100, Duration.ofHours(1));
+        try {
+            for (String name : new String[] {"IT-1", "IT-2", "IT-3"}) {
+                department.setName(name);
+                buffer.save(department);
+            }
+            buffer.save(new Department("Sales"));
+            buffer.save(new Department("HR"));
+            assertEquals(3, buffer.getDepth());
+
+            buffer.flush();
+            assertEquals("IT-3", repositories.withRepository(repo -> repo.findById(Department.class, department.getId())).getName());
+            assertEquals(3, count(Department.class));
+        } finally {
+            buffer.close();
+        }
+    }
+
+    @Test
+    public void aFullFlushSizeStartsABackgroundFlush() throws InterruptedException {
+        WriteBehindBuffer buffer = new WriteBehindBuffer(repositories, 100, 3, Duration.ofHours(1));
+        try {
+            buffer.save(new Department("IT"));
+            buffer.save(new Department("Sales"));
+            Thread.sleep(100);
+            assertEquals(0, count(Department.class));
+
+            buffer.save(new Department("HR"));
+            await(() -> count(Department.class) == 3);
+            assertEquals(0, buffer.getDepth());
+        } finally {
+            buffer.close();
+        }
+    }
+
+    @Test
+    public void theFlushIntervalWritesAPartialBatch() throws InterruptedException {
+        WriteBehindBuffer buffer = new WriteBehindBuffer(repositories, 100, 100, Duration.ofMillis(50));
+        try {
+            buffer.save(new Department("IT"));
+            await(() -> count(Department.class) == 1);
+            assertEquals(0, buffer.getDepth());
+        } finally {
+            buffer.close();
+        }
+    }
+
+    @Test
+    public void writersBlockWhileTheBufferIsFull() throws InterruptedException {
+        Department locked = repositories.inTransaction(repo -> repo.save(new Department("IT")));
+        WriteBehindBuffer buffer = new WriteBehindBuffer(repositories, 1, 1, Duration.ofHours(1));
+        EntityManager em = emf.createEntityManager();
+        Thread writer = new Thread(() -> buffer.save(new Department("HR")));
+        try {
+            // Holds the row lock of the department, so the first background flush waits for it
+            em.getTransaction().begin();
+            em.find(Department.class, locked.getId()).setName("IT-locked");
+            em.flush();
+
+            locked.setName("IT-2");
+            buffer.save(locked);
+            await(() -> buffer.getDepth() == 0);
+            buffer.save(new Department("Sales"));
+            writer.start();
+            await(() -> writer.getState() == Thread.State.WAITING);
+            assertEquals(1, buffer.getDepth());
+
+            em.getTransaction().rollback();
+            writer.join(10_000);
+            assertFalse(writer.isAlive());
+            buffer.flush();
+            assertEquals(3, count(Department.class));
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.close();
+            buffer.close();
+        }
+    }
+
+    @Test
+    public void statsCountFlushesWritesAndCoalescedWrites() {
+        Department department = repositories.inTransaction(repo -> repo.save(new Department("IT")));
+        WriteBehindBuffer buffer = new WriteBehindBuffer(repositories, 100, 100, Duration.ofHours(1));
+        try {
+            buffer.save(department);
+            buffer.save(department);
+            buffer.save(new Employee("Ali", "Yılmaz", "ali@example.com", 5000.0));
+            WriteBehindBuffer.Stats stats = buffer.getStats();
+            assertEquals(2, stats.depth());
+            assertEquals(100, stats.capacity());
+            assertEquals(0, stats.flushes());
+            assertEquals(1, stats.coalescedWrites());
+
+            buffer.flush();
+            buffer.delete(department);
+            buffer.flush();
+            stats = buffer.getStats();
+            assertEquals(0, stats.depth());
+            assertEquals(2, stats.flushes());
+            assertEquals(3, stats.writtenEntities());
+            assertEquals(1, stats.coalescedWrites());
+            assertEquals(0, stats.failedFlushes());
+            assertTrue(stats.maxFlushMillis() >= stats.lastFlushMillis());
+            assertEquals(0, count(Department.class));
+        } finally {
+            buffer.close();
+        }
+    }
+
+    @Test
+    public void nothingIsWrittenInTheBackgroundAfterAFailedFlush() throws InterruptedException {
+        Department stale = repositories.inTransaction(repo -> repo.save(new Department("IT")));
+        WriteBehindBuffer buffer = new WriteBehindBuffer(repositories, 100, 1, Duration.ofHours(1));
+        EntityManager em = emf.createEntityManager();
+        try {
+            // The first flush waits for the row lock, then fails on the version the other transaction committed
+            em.getTransaction().begin();
+            em.find(Department.class, stale.getId()).setName("IT-2");
+            em.flush();
+            stale.setName("IT-3");
+            buffer.save(stale);
+            await(() -> buffer.getDepth() == 0);
+
+            buffer.save(new Department("Sales"));
+            em.getTransaction().commit();
+            await(() -> buffer.getStats().failedFlushes() == 1);
+            Thread.sleep(100);
+            assertEquals(1, buffer.getDepth());
+            assertEquals(1, count(Department.class));
+
+            assertThrows(RuntimeException.class, buffer::flush);
+            buffer.flush();
+            assertEquals(2, count(Department.class));
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.close();
+            buffer.close();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue("Timed out waiting for the buffer", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private long count(Class<?> entityClass) {
+        return repositories.withRepository(repo -> repo.count(entityClass));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.util;
+
+import com.example.model.Department;
+import com.example.model.Employee;
+import com.example.repository.RepositoryFactory;
+import com.example.repository.TestDatabase;
+import org.junit.After;
+import org.junit.Test;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BulkDataSeederTest {
+    private final List<EntityManagerFactory> factories = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        factories.forEach(EntityManagerFactory::close);
+    }
+
+    @Test
+    public void seedsEmployeesInChunksOverTheDepartments() {
+        EntityManagerFactory emf = database("seeder");
+        BulkDataSeeder.Result result = new BulkDataSeeder(emf).employees(2_500).departments(7).chunkSize(1_000).run();
+
+        assertEquals(2_500, result.employees());
+        assertEquals(7, result.departments());
+        RepositoryFactory repositories = new RepositoryFactory(emf);
+        assertEquals(2_500L, repositories.withRepository(repo -> repo.count(Employee.class)).longValue());
+        assertEquals(7L, repositories.withRepository(repo -> repo.count(Department.class)).longValue());
+        assertEquals(0L, repositories.withRepository(repo ->
+                repo.findBy(Employee.class).isNull("department").count()).longValue());
+    }
+
+    @Test
+    public void reusesExistingDepartments() {
+        EntityManagerFactory emf = database("seeder-rerun");
+        new BulkDataSeeder(emf).employees(10).departments(3).run();
+        new BulkDataSeeder(emf).employees(10).departments(5).seed(7).run();
+
+        RepositoryFactory repositories = new RepositoryFactory(emf);
+        assertEquals(5L, repositories.withRepository(repo -> repo.count(Department.class)).longValue());
+        assertEquals(20L, repositories.withRepository(repo -> repo.count(Employee.class)).longValue());
+    }
+
+    @Test
+    public void theSameSeedGivesTheSameData() {
+        assertEquals(seeded("seeder-a", 42), seeded("seeder-b", 42));
+        assertNotEquals(seeded("seeder-c", 42), seeded("seeder-d", 43));
+    }
+
+    private List<String> seeded(String name, long seed) {
+        EntityManagerFactory emf = database(name);
+        new BulkDataSeeder(emf).employees(200).departments(4).seed(seed).run();
+        return new RepositoryFactory(emf).withRepository(repo -> repo.findBy(Employee.class)
+                .orderBy("email", true)
+                .getResult()
+                .stream()
+                .map(e -> e.getEmail() + " " + e.getSalary() + " " + e.getDepartment().getName())
+                .toList());
+    }
+
+    private EntityManagerFactory database(String name) {
+        EntityManagerFactory emf = TestDatabase.create(name);
+        factories.add(emf);
+        return emf;
+    }
+}